@@ -0,0 +1,32 @@
+package com.flickcritic.bench;
+
+import com.flickcritic.FlickCriticApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+// Boots the application without a web server against a fresh in-memory H2 database seeded by the synthetic generator
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(int users, int movies, long reviews,
+                                                ApplicationContextInitializer<?>... initializers) {
+        // Passed as command-line arguments so they take precedence over application-synthetic.properties
+        return new SpringApplicationBuilder(FlickCriticApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("synthetic")
+                .initializers(initializers)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--flickcritic.synthetic.users=" + users,
+                        "--flickcritic.synthetic.movies=" + movies,
+                        "--flickcritic.synthetic.reviews=" + reviews,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.flickcritic=WARN");
+    }
+}
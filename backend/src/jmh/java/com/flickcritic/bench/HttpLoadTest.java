@@ -0,0 +1,119 @@
+package com.flickcritic.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop HTTP load against a running backend: each client sends its next request as soon as the previous
+// one completes, cycling through the given URLs. Reports throughput and latency percentiles after a warmup.
+//
+// java -cp backend/target/jmh/test-classes com.flickcritic.bench.HttpLoadTest \
+//     <clients> <warmupSeconds> <durationSeconds> <url> [<url>...]
+public final class HttpLoadTest {
+
+    private HttpLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: HttpLoadTest <clients> <warmupSeconds> <durationSeconds> <url> [<url>...]");
+            System.exit(1);
+        }
+        int clients = Integer.parseInt(args[0]);
+        Duration warmup = Duration.ofSeconds(Long.parseLong(args[1]));
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[2]));
+        List<HttpRequest> requests = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) {
+            requests.add(HttpRequest.newBuilder(URI.create(args[i])).timeout(Duration.ofSeconds(30)).GET().build());
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[clients][];
+        CountDownLatch done = new CountDownLatch(clients);
+
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            int clientIndex = c;
+            workers.execute(() -> {
+                LatencyBuffer samples = new LatencyBuffer();
+                int next = clientIndex;
+                try {
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start >= measureUntil) {
+                            break;
+                        }
+                        boolean ok;
+                        try {
+                            HttpResponse<byte[]> response = client.send(requests.get(next++ % requests.size()),
+                                    HttpResponse.BodyHandlers.ofByteArray());
+                            ok = response.statusCode() < 400;
+                        } catch (Exception ex) {
+                            ok = false;
+                        }
+                        long end = System.nanoTime();
+                        if (start >= measureFrom && end <= measureUntil) {
+                            if (ok) {
+                                samples.add(end - start);
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    }
+                } finally {
+                    latencies[clientIndex] = samples.toArray();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        workers.shutdown();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("clients=%d requests=%d errors=%d throughput=%.1f req/s%n",
+                clients, all.length, errors.get(), all.length / seconds);
+        if (all.length > 0) {
+            System.out.printf("latency p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms%n",
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        }
+        System.exit(0);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static final class LatencyBuffer {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.flickcritic.bench;
+
+import com.flickcritic.dto.MovieCard;
+import com.flickcritic.search.MovieSearchIndex;
+import com.flickcritic.service.MovieService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// MovieServiceImpl.searchMovies (index plus card lookup) and the bare index, by catalogue size
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieSearchBenchmark {
+
+    @Param({"1000", "100000"})
+    private int movies;
+
+    @Param({"orbit", "silent harbor", "young detective revenge"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private MovieService movieService;
+    private MovieSearchIndex movieSearchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(1, movies, 0);
+        movieService = context.getBean(MovieService.class);
+        movieSearchIndex = context.getBean(MovieSearchIndex.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MovieCard> searchMovies() {
+        return movieService.searchMovies(query, 20);
+    }
+
+    @Benchmark
+    public List<Long> indexOnly() {
+        return movieSearchIndex.search(query, 20);
+    }
+}
@@ -0,0 +1,326 @@
+package com.flickcritic.bench;
+
+import com.flickcritic.dto.MovieCard;
+import com.flickcritic.dto.ReviewView;
+import com.flickcritic.model.RatingHistogram;
+import com.flickcritic.ranking.TrendingMovies;
+import com.flickcritic.repository.MovieRepository;
+import com.flickcritic.repository.ReviewRepository;
+import com.flickcritic.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Query plans of every repository query against a generated dataset. Each check calls a repository method once
+// while the DataSource records the statements it prepares, with their bind values; the statements are then re-run
+// under EXPLAIN ANALYZE. A check fails when a statement scans a whole table or reads more rows than its budget:
+// a few rows for a point lookup, about a page for a keyset page, the matching rows for a lookup by movie or user.
+// Bulk queries that read everything by design are reported but never fail. Exits 1 on any failure.
+//
+// mvn -Pbenchmarks test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//     -Dexec.args="-classpath %classpath com.flickcritic.bench.QueryPlanCheck [<users> <movies> <reviews>]"
+public final class QueryPlanCheck {
+
+    private static final int PAGE = 20;
+    private static final long POINT_LOOKUP = 4;
+    private static final long BULK = Long.MAX_VALUE;
+
+    private static final Pattern SCAN_COUNT = Pattern.compile("/\\* scanCount: (\\d+) \\*/");
+    private static final Pattern ACCESS = Pattern.compile("/\\* (PUBLIC\\.\\w+(?:\\.tableScan)?)");
+
+    private static final List<Recorded> recorded = new ArrayList<>();
+    private static volatile boolean recording;
+
+    private QueryPlanCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int movies = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        long reviews = args.length > 2 ? Long.parseLong(args[2]) : 1_000_000;
+
+        ConfigurableApplicationContext context = BenchmarkContext.start(users, movies, reviews,
+                applicationContext -> applicationContext.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource ? new RecordingDataSource(dataSource) : bean;
+                    }
+                }));
+        MovieRepository movieRepository = context.getBean(MovieRepository.class);
+        ReviewRepository reviewRepository = context.getBean(ReviewRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        DataSource dataSource = context.getBean(DataSource.class);
+
+        // The worst cases: the most reviewed movie and the most prolific user
+        long movieId = jdbcTemplate.queryForObject("select id from movies order by review_count desc limit 1", Long.class);
+        long movieReviews = jdbcTemplate.queryForObject(
+                "select count(*) from reviews where movie_id = ?", Long.class, movieId);
+        long userId = jdbcTemplate.queryForObject(
+                "select user_id from reviews group by user_id order by count(*) desc limit 1", Long.class);
+        long userReviews = jdbcTemplate.queryForObject(
+                "select count(*) from reviews where user_id = ?", Long.class, userId);
+        String email = jdbcTemplate.queryForObject("select email from users where id = ?", String.class, userId);
+        long reviewedMovieId = jdbcTemplate.queryForObject(
+                "select movie_id from reviews where user_id = ? limit 1", Long.class, userId);
+        long reviewId = jdbcTemplate.queryForObject("select max(id) from reviews", Long.class);
+        TrendingMovies trendingMovies = context.getBean(TrendingMovies.class);
+        long windowReviews = jdbcTemplate.queryForObject(
+                "select count(*) from reviews where date >= ?", Long.class, trendingMovies.windowStart());
+        // Cursors taken from the last row of each first page, as a client would send them
+        ReviewView latest = last(reviewRepository.findFirstPage(PAGE));
+        ReviewView latestOfMovie = last(reviewRepository.findFirstPageByMovieId(movieId, PAGE));
+        ReviewView latestOfUser = last(reviewRepository.findFirstPageByUserId(userId, PAGE));
+        List<MovieCard> firstMovies = movieRepository.findFirstPage(PAGE);
+        long lastMovieId = last(firstMovies).id();
+        List<Long> movieIds = firstMovies.stream().map(MovieCard::id).toList();
+
+        List<Check> checks = List.of(
+                new Check("Movie.findById", () -> movieRepository.findById(movieId), POINT_LOOKUP),
+                new Check("Movie.findVersionById", () -> movieRepository.findVersionById(movieId), POINT_LOOKUP),
+                new Check("Movie.findFirstPage", () -> movieRepository.findFirstPage(PAGE), page()),
+                new Check("Movie.findPageAfter", () -> movieRepository.findPageAfter(lastMovieId, PAGE), nextPage()),
+                new Check("Movie.findCardsByIdIn", () -> movieRepository.findCardsByIdIn(movieIds),
+                        matching(movieIds.size())),
+                new Check("Movie.findTextPageAfter", () -> movieRepository.findTextPageAfter(lastMovieId, PAGE),
+                        nextPage()),
+                new Check("Movie.findRatedPageAfter", () -> movieRepository.findRatedPageAfter(lastMovieId, PAGE),
+                        nextPage()),
+                new Check("Movie.findStoredRatingsPageAfter",
+                        () -> movieRepository.findStoredRatingsPageAfter(lastMovieId, PAGE), nextPage()),
+                new Check("Movie.incrementRatings", () -> transactionTemplate.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    movieRepository.incrementRatings(movieId, new RatingHistogram());
+                }), POINT_LOOKUP),
+                new Check("Movie.findAllCards", movieRepository::findAllCards, BULK),
+                new Check("Movie.findGlobalAverageRating", movieRepository::findGlobalAverageRating, BULK),
+                new Check("Movie.streamForExport", () -> transactionTemplate.executeWithoutResult(status -> {
+                    try (var stream = movieRepository.streamForExport()) {
+                        stream.limit(PAGE).forEach(movie -> { });
+                    }
+                }), BULK),
+
+                new Check("User.findById", () -> userRepository.findById(userId), POINT_LOOKUP),
+                new Check("User.findByEmail", () -> userRepository.findByEmail(email), POINT_LOOKUP),
+                new Check("User.existsByEmail", () -> userRepository.existsByEmail(email), POINT_LOOKUP),
+                new Check("User.findAllSummaries", userRepository::findAllSummaries, BULK),
+
+                new Check("Review.findById", () -> reviewRepository.findById(reviewId), POINT_LOOKUP),
+                new Check("Review.findByMovieIdAndUserId",
+                        () -> reviewRepository.findByMovieIdAndUserId(reviewedMovieId, userId), POINT_LOOKUP),
+                new Check("Review.existsByMovieIdAndUserId",
+                        () -> reviewRepository.existsByMovieIdAndUserId(reviewedMovieId, userId), POINT_LOOKUP),
+                new Check("Review.findFirstPage", () -> reviewRepository.findFirstPage(PAGE), page()),
+                new Check("Review.findPageBefore",
+                        () -> reviewRepository.findPageBefore(latest.date(), latest.id(), PAGE), nextPage()),
+                new Check("Review.findFirstPageByMovieId",
+                        () -> reviewRepository.findFirstPageByMovieId(movieId, PAGE), page()),
+                new Check("Review.findPageByMovieIdBefore", () -> reviewRepository.findPageByMovieIdBefore(
+                        movieId, latestOfMovie.date(), latestOfMovie.id(), PAGE), nextPage()),
+                new Check("Review.findFirstPageByUserId",
+                        () -> reviewRepository.findFirstPageByUserId(userId, PAGE), page()),
+                new Check("Review.findPageByUserIdBefore", () -> reviewRepository.findPageByUserIdBefore(
+                        userId, latestOfUser.date(), latestOfUser.id(), PAGE), nextPage()),
+                new Check("Review.findByMovieId", () -> reviewRepository.findByMovieId(movieId),
+                        matching(movieReviews)),
+                new Check("Review.findViewsByMovieId", () -> reviewRepository.findViewsByMovieId(movieId),
+                        matching(movieReviews)),
+                new Check("Review.findRatingBucketsByMovieIds",
+                        () -> reviewRepository.findRatingBucketsByMovieIds(List.of(movieId)), matching(movieReviews)),
+                new Check("Review.findByUserId", () -> reviewRepository.findByUserId(userId), matching(userReviews)),
+                new Check("Review.findViewsByUserId", () -> reviewRepository.findViewsByUserId(userId),
+                        matching(userReviews)),
+                new Check("Review.findRatingBucketsByUserId",
+                        () -> reviewRepository.findRatingBucketsByUserId(userId), matching(userReviews)),
+                new Check("Review.findDatedRatingsByUserIdSince", () -> reviewRepository
+                        .findDatedRatingsByUserIdSince(userId, trendingMovies.windowStart()), matching(userReviews)),
+                new Check("Review.deleteByUserId", () -> transactionTemplate.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    reviewRepository.deleteByUserId(userId);
+                }), matching(userReviews)),
+                new Check("Review.findAllViews", reviewRepository::findAllViews, BULK),
+                new Check("Review.streamForExport", () -> transactionTemplate.executeWithoutResult(status -> {
+                    try (var stream = reviewRepository.streamForExport(null, null, null, null)) {
+                        stream.limit(PAGE).forEach(review -> { });
+                    }
+                }), BULK),
+                new Check("TrendingMovies.rebuild", trendingMovies::rebuild, matching(windowReviews))
+        );
+
+        System.out.printf("movie %d has %d reviews, user %d has %d%n", movieId, movieReviews, userId, userReviews);
+        int failures = 0;
+        for (Check check : checks) {
+            entityManagerFactory.getCache().evictAll();
+            List<Recorded> statements = record(check.query());
+            if (statements.isEmpty()) {
+                System.out.printf("FAIL %-36s issued no SQL%n", check.name());
+                failures++;
+                continue;
+            }
+            long rowsRead = 0;
+            boolean tableScan = false;
+            Set<String> access = new LinkedHashSet<>();
+            List<String> plans = new ArrayList<>();
+            for (Recorded statement : statements) {
+                String plan = explain(dataSource, statement);
+                plans.add(plan);
+                Matcher scans = SCAN_COUNT.matcher(plan);
+                while (scans.find()) {
+                    rowsRead += Long.parseLong(scans.group(1));
+                }
+                Matcher used = ACCESS.matcher(plan);
+                while (used.find()) {
+                    access.add(used.group(1).substring("PUBLIC.".length()));
+                    tableScan |= used.group(1).endsWith(".tableScan");
+                }
+            }
+            boolean bulk = check.budget() == BULK;
+            boolean ok = bulk || (!tableScan && rowsRead <= check.budget());
+            System.out.printf("%-4s %-36s read %8d rows (budget %8s) via %s%n", ok ? (bulk ? "BULK" : "OK") : "FAIL",
+                    check.name(), rowsRead, bulk ? "-" : check.budget(), String.join(", ", access));
+            if (!ok) {
+                failures++;
+                plans.forEach(plan -> System.out.println("    " + plan.replace("\n", "\n    ")));
+            }
+        }
+        context.close();
+
+        System.out.println(failures == 0 ? "OK: no hot query scans a table"
+                : "FAIL: " + failures + " queries scan a table or read past their budget");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static long page() {
+        return 2L * PAGE + 2;
+    }
+
+    // After a cursor the scan also passes the previous page's rows that share the cursor's date
+    private static long nextPage() {
+        return 3L * PAGE + 2;
+    }
+
+    private static long matching(long rows) {
+        return 2 * rows + 2;
+    }
+
+    private static <T> T last(List<T> rows) {
+        if (rows.isEmpty()) {
+            throw new IllegalStateException("Dataset too small: empty first page");
+        }
+        return rows.get(rows.size() - 1);
+    }
+
+    private static List<Recorded> record(Runnable query) {
+        synchronized (recorded) {
+            recorded.clear();
+        }
+        recording = true;
+        try {
+            query.run();
+        } finally {
+            recording = false;
+        }
+        synchronized (recorded) {
+            return new ArrayList<>(recorded);
+        }
+    }
+
+    // EXPLAIN ANALYZE runs the query and reports rows read per table; DML is only planned, never re-run
+    private static String explain(DataSource dataSource, Recorded statement) throws SQLException {
+        boolean query = statement.sql().stripLeading().regionMatches(true, 0, "select", 0, 6);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement(
+                     (query ? "explain analyze " : "explain ") + statement.sql())) {
+            for (Map.Entry<Integer, Object> parameter : statement.parameters().entrySet()) {
+                explain.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
+
+    private record Check(String name, Runnable query, long budget) {
+    }
+
+    private record Recorded(String sql, Map<Integer, Object> parameters) {
+    }
+
+    // Hands out connections whose prepared statements report their SQL and bind values when executed
+    private static final class RecordingDataSource extends DelegatingDataSource {
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return recording(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return recording(super.getConnection(username, password));
+        }
+
+        private static Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement ps) {
+                            return recording(ps, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private static PreparedStatement recording(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                            parameters.put(index, name.equals("setNull") ? null : args[1]);
+                        } else if (name.equals("clearParameters")) {
+                            parameters.clear();
+                        } else if (recording && name.startsWith("execute") && (args == null || args.length == 0)) {
+                            synchronized (recorded) {
+                                recorded.add(new Recorded(sql, new TreeMap<>(parameters)));
+                            }
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.flickcritic.bench;
+
+import com.flickcritic.model.Movie;
+import com.flickcritic.model.RatingHistogram;
+import com.flickcritic.model.Review;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Recounting a movie's ratings from its loaded reviews (what the entity did before running aggregates) versus
+// applying a one-review delta to the running histogram, as the review count grows. The application itself now
+// recounts in SQL (ReviewService.countRatings); this measures only the in-memory recount it replaced
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RatingAggregationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int reviewCount;
+
+    private Movie movie;
+    private RatingHistogram histogram;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        movie = new Movie(1L, "Benchmark", "/placeholder.svg", "Benchmark movie", 0.0, new ArrayList<>());
+        List<Review> reviews = movie.getReviews();
+        for (int i = 0; i < reviewCount; i++) {
+            reviews.add(new Review((long) i, movie, null, "user", 1 + random.nextInt(5), "comment", LocalDate.now()));
+        }
+        histogram = recount();
+    }
+
+    @Benchmark
+    public double recountLoadedReviews() {
+        RatingHistogram recounted = recount();
+        return (double) recounted.ratingSum() / recounted.total();
+    }
+
+    @Benchmark
+    public double replaceRating() {
+        histogram.add(3, -1);
+        histogram.add(4, 1);
+        histogram.add(4, -1);
+        histogram.add(3, 1);
+        return (double) histogram.ratingSum() / histogram.total();
+    }
+
+    private RatingHistogram recount() {
+        RatingHistogram recounted = new RatingHistogram();
+        for (Review review : movie.getReviews()) {
+            recounted.add(review.getRating(), 1);
+        }
+        return recounted;
+    }
+}
@@ -0,0 +1,145 @@
+package com.flickcritic.bench;
+
+import com.flickcritic.model.Movie;
+import com.flickcritic.model.RatingHistogram;
+import com.flickcritic.model.Review;
+import com.flickcritic.model.User;
+import com.flickcritic.repository.MovieRepository;
+import com.flickcritic.repository.UserRepository;
+import com.flickcritic.service.ReviewService;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Parallel writers creating, re-rating and deleting reviews of one hot movie, then a check that the stored
+// aggregates and histogram equal both the writes that committed and a recount of the reviews. Exits 1 on drift.
+//
+// mvn -Pbenchmarks test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//     -Dexec.args="-classpath %classpath com.flickcritic.bench.RatingContentionStressTest [<threads> [<reviewsPerThread>]]"
+public final class RatingContentionStressTest {
+
+    private RatingContentionStressTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int reviewsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 250;
+
+        ConfigurableApplicationContext context = BenchmarkContext.start(1, 1, 0);
+        ReviewService reviewService = context.getBean(ReviewService.class);
+        Movie movie = context.getBean(MovieRepository.class).findById(1L).orElseThrow();
+
+        // Every review gets its own user, so no writer ever updates the same review row as another
+        List<User> users = new ArrayList<>(threads * reviewsPerThread);
+        for (int i = 0; i < threads * reviewsPerThread; i++) {
+            users.add(new User(null, "Stress User " + i, "stress" + i + "@example.com", "password", "user",
+                    new ArrayList<>()));
+        }
+        users = context.getBean(UserRepository.class).saveAll(users);
+
+        RatingHistogram[] expected = new RatingHistogram[threads];
+        AtomicLong operations = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            List<User> own = users.subList(t * reviewsPerThread, (t + 1) * reviewsPerThread);
+            workers.execute(() -> {
+                RatingHistogram committed = new RatingHistogram();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                    for (User user : own) {
+                        int rating = random.nextInt(1, 6);
+                        Review review;
+                        try {
+                            review = reviewService.saveReview(
+                                    new Review(null, movie, user, user.getName(), rating, "Stress", LocalDate.now()));
+                            committed.add(rating, 1);
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                            continue;
+                        } finally {
+                            operations.incrementAndGet();
+                        }
+                        int action = random.nextInt(10);
+                        try {
+                            if (action < 3) {
+                                int newRating = random.nextInt(1, 6);
+                                reviewService.saveReview(new Review(review.getId(), movie, user, user.getName(),
+                                        newRating, "Stress, re-rated", review.getDate()));
+                                committed.add(rating, -1);
+                                committed.add(newRating, 1);
+                            } else if (action < 5) {
+                                reviewService.deleteReview(review.getId());
+                                committed.add(rating, -1);
+                            }
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        } finally {
+                            if (action < 5) {
+                                operations.incrementAndGet();
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    expected[thread] = committed;
+                    done.countDown();
+                }
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        done.await();
+        double seconds = (System.nanoTime() - began) / 1e9;
+        workers.shutdown();
+
+        RatingHistogram total = new RatingHistogram();
+        for (RatingHistogram histogram : expected) {
+            for (int rating = RatingHistogram.MIN_RATING; rating <= RatingHistogram.MAX_RATING; rating++) {
+                total.add(rating, histogram.getCount(rating));
+            }
+        }
+        // Straight from the table, past the second-level cache
+        Map<String, Object> row = context.getBean(JdbcTemplate.class).queryForMap(
+                "select rating_sum, review_count, rating_count_1, rating_count_2, rating_count_3, rating_count_4, "
+                        + "rating_count_5 from movies where id = ?", movie.getId());
+        RatingHistogram stored = new RatingHistogram(((Number) row.get("rating_count_1")).intValue(),
+                ((Number) row.get("rating_count_2")).intValue(), ((Number) row.get("rating_count_3")).intValue(),
+                ((Number) row.get("rating_count_4")).intValue(), ((Number) row.get("rating_count_5")).intValue());
+        long storedSum = ((Number) row.get("rating_sum")).longValue();
+        int storedCount = ((Number) row.get("review_count")).intValue();
+        RatingHistogram recounted = reviewService.countRatings(List.of(movie.getId()))
+                .getOrDefault(movie.getId(), new RatingHistogram());
+        context.close();
+
+        System.out.printf("threads=%d operations=%d failures=%d throughput=%.1f ops/s%n",
+                threads, operations.get(), failures.get(), operations.get() / seconds);
+        System.out.printf("expected  %s sum=%d count=%d%n", describe(total), total.ratingSum(), total.total());
+        System.out.printf("recounted %s sum=%d count=%d%n", describe(recounted), recounted.ratingSum(), recounted.total());
+        System.out.printf("stored    %s sum=%d count=%d%n", describe(stored), storedSum, storedCount);
+        boolean exact = stored.sameCounts(total) && stored.sameCounts(recounted)
+                && storedSum == total.ratingSum() && storedCount == total.total();
+        System.out.println(exact ? "OK: aggregates are exact" : "FAIL: aggregates drifted");
+        System.exit(exact ? 0 : 1);
+    }
+
+    private static String describe(RatingHistogram histogram) {
+        return String.format("[%d, %d, %d, %d, %d]", histogram.getCount(1), histogram.getCount(2),
+                histogram.getCount(3), histogram.getCount(4), histogram.getCount(5));
+    }
+}
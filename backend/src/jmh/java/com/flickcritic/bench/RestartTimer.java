@@ -0,0 +1,94 @@
+package com.flickcritic.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Restart timing of the packaged backend: launches it, polls a URL until it answers 200 and reports the time from
+// launch to that first served request, then stops the process gracefully (SIGTERM, as a service manager would) and
+// reports how long shutdown took. Repeats for the given number of runs; the process output goes to restart-timer.log.
+//
+// java -cp backend/target/jmh/test-classes com.flickcritic.bench.RestartTimer <runs> <url> <java arguments...>
+// e.g. RestartTimer 3 http://localhost:8090/api/movies/1 -Xmx2g -jar target/flick-critic-backend-0.0.1-SNAPSHOT.jar \
+//     --spring.profiles.active=durable
+public final class RestartTimer {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(10);
+    private static final long POLL_MILLIS = 20;
+
+    private RestartTimer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: RestartTimer <runs> <url> <java arguments...>");
+            System.exit(1);
+        }
+        int runs = Integer.parseInt(args[0]);
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(args[1])).timeout(Duration.ofSeconds(30)).GET().build();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(args).subList(2, args.length));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(500)).build();
+        File log = new File("restart-timer.log");
+
+        long[] firstRequest = new long[runs];
+        long[] shutdown = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            long launched = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(log))
+                    .start();
+            try {
+                firstRequest[run] = awaitFirstResponse(client, probe, process, launched);
+            } finally {
+                long stopping = System.nanoTime();
+                process.destroy();
+                if (!process.waitFor(STARTUP_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+                shutdown[run] = (System.nanoTime() - stopping) / 1_000_000;
+            }
+            System.out.printf("run %d: first response after %d ms, shutdown took %d ms%n",
+                    run + 1, firstRequest[run], shutdown[run]);
+        }
+        System.out.printf("median: first response %d ms, shutdown %d ms%n", median(firstRequest), median(shutdown));
+    }
+
+    static long awaitFirstResponse(HttpClient client, HttpRequest probe, Process process, long launched)
+            throws Exception {
+        long deadline = launched + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited with status " + process.exitValue()
+                        + "; see restart-timer.log");
+            }
+            try {
+                HttpResponse<Void> response = client.send(probe, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return (System.nanoTime() - launched) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+        throw new IllegalStateException("No 200 from " + probe.uri() + " within " + STARTUP_TIMEOUT);
+    }
+
+    static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,80 @@
+package com.flickcritic.bench;
+
+import com.flickcritic.model.Movie;
+import com.flickcritic.model.Review;
+import com.flickcritic.model.User;
+import com.flickcritic.repository.MovieRepository;
+import com.flickcritic.repository.UserRepository;
+import com.flickcritic.service.ReviewService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end ReviewServiceImpl.saveReview against in-memory H2, by number of existing reviews per movie
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReviewServiceBenchmark {
+
+    private static final int MOVIES = 10;
+
+    @Param({"100", "10000"})
+    private int reviewsPerMovie;
+
+    private ConfigurableApplicationContext context;
+    private ReviewService reviewService;
+    private Movie movie;
+    private User user;
+    private Long savedReviewId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long reviews = (long) reviewsPerMovie * MOVIES;
+        // The generator lets each user review at most half the movies, so keep the per-user mean low
+        context = BenchmarkContext.start((int) Math.max(1, reviews / 3), MOVIES, reviews);
+        reviewService = context.getBean(ReviewService.class);
+        movie = context.getBean(MovieRepository.class).findById(1L).orElseThrow();
+        // A dedicated user that has no generated reviews
+        user = context.getBean(UserRepository.class)
+                .save(new User(null, "Bench User", "bench@example.com", "password", "user", new ArrayList<>()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Review saveReview() {
+        Review saved = reviewService.saveReview(
+                new Review(null, movie, user, user.getName(), 4, "Benchmark review", LocalDate.now()));
+        savedReviewId = saved.getId();
+        return saved;
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteSavedReview() {
+        if (savedReviewId != null) {
+            reviewService.deleteReview(savedReviewId);
+            savedReviewId = null;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.flickcritic.bench;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Holds many idle review streams of one movie open against a running backend, then edits one of that movie's
+// reviews repeatedly and reports how long each change takes to reach every stream. The streams are plain
+// non-blocking sockets on one selector thread, so the client side costs a file descriptor per stream and no
+// thread; raise the open-file limit of both processes above the stream count. Events lost to a full subscriber
+// buffer show up as missed.
+//
+// java -cp backend/target/jmh/test-classes com.flickcritic.bench.ReviewStreamLoadTest \
+//     <streams> <edits> <editIntervalMillis> <baseUrl> <reviewId>
+public final class ReviewStreamLoadTest {
+
+    private static final byte[] REVIEW_EVENT = "event:review".getBytes(StandardCharsets.US_ASCII);
+    private static final Pattern FIELD = Pattern.compile("\"(movieId|userId|username|comment)\":(\"[^\"]*\"|\\d+)");
+
+    private static int failed;
+
+    private ReviewStreamLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("Usage: ReviewStreamLoadTest <streams> <edits> <editIntervalMillis> <baseUrl> <reviewId>");
+            System.exit(1);
+        }
+        int streams = Integer.parseInt(args[0]);
+        int edits = Integer.parseInt(args[1]);
+        long interval = Long.parseLong(args[2]);
+        URI base = URI.create(args[3].endsWith("/") ? args[3] : args[3] + "/");
+        long reviewId = Long.parseLong(args[4]);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        String review = client.send(HttpRequest.newBuilder(base.resolve("reviews/" + reviewId)).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        StringBuilder fields = new StringBuilder();
+        long movieId = 0;
+        Matcher matcher = FIELD.matcher(review);
+        while (matcher.find()) {
+            switch (matcher.group(1)) {
+                case "movieId" -> {
+                    movieId = Long.parseLong(matcher.group(2));
+                    fields.append("\"movie\":{\"id\":").append(movieId).append("},");
+                }
+                case "userId" -> fields.append("\"user\":{\"id\":").append(matcher.group(2)).append("},");
+                default -> fields.append('"').append(matcher.group(1)).append("\":").append(matcher.group(2)).append(',');
+            }
+        }
+
+        // Open every stream and wait for its response headers
+        Selector selector = Selector.open();
+        InetSocketAddress address = new InetSocketAddress(base.getHost(), base.getPort());
+        byte[] request = ("GET " + base.getPath() + "reviews/movie/" + movieId + "/stream HTTP/1.1\r\n"
+                + "Host: " + base.getHost() + "\r\nAccept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        Stream[] open = new Stream[streams];
+        long connectStart = System.nanoTime();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        long[] sentAt = new long[edits];
+        int ok = 0;
+        for (int i = 0; i < streams; i++) {
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.connect(address);
+            open[i] = new Stream(edits, ByteBuffer.wrap(request));
+            channel.register(selector, SelectionKey.OP_CONNECT, open[i]);
+            // Keep the connects in flight bounded, as a crowd of browsers arriving over a few seconds would
+            if (i % 100 == 99) {
+                ok += poll(selector, buffer, sentAt, 0);
+            }
+        }
+        while (ok < streams) {
+            ok += poll(selector, buffer, sentAt, 1000);
+        }
+        System.out.printf("%d streams open in %d ms, %d refused%n", streams - failed,
+                (System.nanoTime() - connectStart) / 1_000_000, failed);
+
+        // Edit the review at a fixed pace while draining the streams
+        long deadline = 0;
+        for (int e = 0; e < edits; e++) {
+            String body = "{" + fields + "\"rating\":" + (1 + e % 5) + "}";
+            sentAt[e] = System.nanoTime();
+            client.sendAsync(HttpRequest.newBuilder(base.resolve("reviews/" + reviewId))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.discarding());
+            long next = sentAt[e] + interval * 1_000_000;
+            while (System.nanoTime() < next) {
+                poll(selector, buffer, sentAt, Math.max(1, (next - System.nanoTime()) / 1_000_000));
+            }
+            deadline = next;
+        }
+        while (System.nanoTime() < deadline + 5_000_000_000L && !allReceived(open, edits)) {
+            poll(selector, buffer, sentAt, 100);
+        }
+
+        long[] latencies = new long[streams * edits];
+        int received = 0;
+        long lastDelivery = 0;
+        for (Stream stream : open) {
+            for (int e = 0; e < stream.received; e++) {
+                latencies[received++] = stream.latencies[e];
+                lastDelivery = Math.max(lastDelivery, stream.latencies[e]);
+            }
+        }
+        long[] sorted = Arrays.copyOf(latencies, received);
+        Arrays.sort(sorted);
+        long expected = (long) (streams - failed) * edits;
+        System.out.printf("events delivered %d of %d (%d missed or coalesced)%n", received, expected,
+                expected - received);
+        if (received > 0) {
+            System.out.printf("write-to-delivery p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    lastDelivery / 1e6);
+        }
+        selector.close();
+        System.exit(0);
+    }
+
+    // Reads whatever arrived, waiting up to the timeout (not at all for 0); returns how many streams saw their
+    // response headers, or failed, for the first time
+    private static int poll(Selector selector, ByteBuffer buffer, long[] sentAt, long timeoutMillis) throws Exception {
+        int opened = 0;
+        if (timeoutMillis > 0) {
+            selector.select(timeoutMillis);
+        } else {
+            selector.selectNow();
+        }
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            Stream stream = (Stream) key.attachment();
+            SocketChannel channel = (SocketChannel) key.channel();
+            int read;
+            try {
+                if (key.isConnectable()) {
+                    channel.finishConnect();
+                    channel.write(stream.request);
+                    key.interestOps(SelectionKey.OP_READ);
+                    continue;
+                }
+                buffer.clear();
+                read = channel.read(buffer);
+            } catch (IOException e) {
+                read = -1;
+            }
+            if (read < 0) {
+                key.cancel();
+                channel.close();
+                if (!stream.open) {
+                    // Refused or reset before the stream opened
+                    stream.open = true;
+                    failed++;
+                    opened++;
+                }
+                continue;
+            }
+            long now = System.nanoTime();
+            buffer.flip();
+            if (!stream.open) {
+                stream.open = true;
+                opened++;
+            }
+            while (buffer.hasRemaining()) {
+                stream.scan(buffer.get(), now, sentAt);
+            }
+        }
+        return opened;
+    }
+
+    private static boolean allReceived(Stream[] streams, int edits) {
+        for (Stream stream : streams) {
+            if (stream.received < edits) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+    }
+
+    private static final class Stream {
+
+        final long[] latencies;
+        final ByteBuffer request;
+        boolean open;
+        int received;
+        int matched;
+
+        Stream(int edits, ByteBuffer request) {
+            this.latencies = new long[edits];
+            this.request = request;
+        }
+
+        // Events arrive in edit order, so the n-th review event answers the n-th edit
+        void scan(byte b, long now, long[] sentAt) {
+            matched = b == REVIEW_EVENT[matched] ? matched + 1 : (b == REVIEW_EVENT[0] ? 1 : 0);
+            if (matched == REVIEW_EVENT.length) {
+                matched = 0;
+                if (received < latencies.length) {
+                    latencies[received] = now - sentAt[received];
+                    received++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.flickcritic.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.flickcritic.dto.MovieCard;
+import com.flickcritic.dto.ReviewView;
+import com.flickcritic.model.Movie;
+import com.flickcritic.model.Review;
+import com.flickcritic.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson encoding of Movie/Review lists, as entities and as the flat read models the API now returns
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Movie> movies;
+    private List<Review> reviews;
+    private List<MovieCard> movieCards;
+    private List<ReviewView> reviewViews;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        movies = new ArrayList<>(size);
+        reviews = new ArrayList<>(size);
+        User user = new User(1L, "Bench User", "bench@example.com", "password", "user", new ArrayList<>());
+        for (int i = 0; i < size; i++) {
+            Movie movie = new Movie((long) i, "Movie " + i, "/placeholder.svg",
+                    "A young detective confronts a hidden truth in a small town, movie number " + i,
+                    3.5, new ArrayList<>());
+            movies.add(movie);
+            reviews.add(new Review((long) i, movie, user, user.getName(), 1 + i % 5,
+                    "Stunning visuals and world-building, though the story feels familiar.", LocalDate.of(2024, 1, 1)));
+        }
+        movieCards = movies.stream().map(MovieCard::from).toList();
+        reviewViews = reviews.stream().map(ReviewView::from).toList();
+    }
+
+    @Benchmark
+    public byte[] movieEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(movies);
+    }
+
+    @Benchmark
+    public byte[] reviewEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reviews);
+    }
+
+    @Benchmark
+    public byte[] movieCards() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(movieCards);
+    }
+
+    @Benchmark
+    public byte[] reviewViews() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reviewViews);
+    }
+}
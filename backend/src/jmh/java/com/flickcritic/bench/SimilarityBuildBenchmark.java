@@ -0,0 +1,73 @@
+package com.flickcritic.bench;
+
+import com.flickcritic.similar.RatingTriples;
+import com.flickcritic.similar.SimilarityMatrix;
+import com.flickcritic.similar.SimilarityProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// SimilarityMatrix.build from ratings already in memory (the compute part of a rebuild, without the reviews query),
+// by review count, over 100k users and 100k movies with Zipfian movie popularity like the synthetic profile
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class SimilarityBuildBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int MOVIES = 100_000;
+
+    @Param({"100000", "1000000"})
+    private int reviews;
+
+    private RatingTriples ratings;
+    private SimilarityProperties properties;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        // Inverse-CDF sampling of a Zipf(1.0) rank; a user rating the same movie twice is harmless here
+        double harmonic = Math.log(MOVIES) + 0.5772;
+        ratings = new RatingTriples(reviews);
+        for (int i = 0; i < reviews; i++) {
+            long movie = Math.min(MOVIES, (long) Math.exp(random.nextDouble() * harmonic - 0.5772) + 1);
+            long user = 1 + random.nextInt(USERS);
+            int bias = (int) (movie % 3) - 1;
+            ratings.add(user, movie, Math.max(1, Math.min(5, 3 + bias + random.nextInt(-1, 2))));
+        }
+        properties = new SimilarityProperties();
+        pool = new ForkJoinPool(properties.getThreads());
+
+        SimilarityMatrix matrix = SimilarityMatrix.build(ratings, properties, pool);
+        System.out.printf("%n%d reviews: %d pairs over %d movies, %d KB%n", matrix.reviewCount(), matrix.pairCount(),
+                matrix.movieCount(), matrix.sizeInBytes() >> 10);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public SimilarityMatrix build() {
+        return SimilarityMatrix.build(ratings, properties, pool);
+    }
+}
@@ -0,0 +1,124 @@
+package com.flickcritic.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickcritic.dto.StartupPhase;
+import com.flickcritic.dto.StartupReport;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Cold-start benchmark: launches the backend with startup step recording on, reports the time from launch to the
+// first 200 from a URL, then reads GET /api/startup for where the startup time went. Prints every run and the
+// per-phase medians; run it against both the executable jar and the fast-startup artifact to compare them.
+// The process output goes to startup-benchmark.log.
+//
+// mvn -Pbenchmarks test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//     -Dexec.args="-classpath %classpath com.flickcritic.bench.StartupBenchmark <runs> <url> <java arguments...>"
+public final class StartupBenchmark {
+
+    private static final int STARTUP_STEPS = 20000;
+    private static final String READY_PHASE = "spring.boot.application.ready";
+    private static final Duration REPORT_TIMEOUT = Duration.ofMinutes(5);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: StartupBenchmark <runs> <url> <java arguments...>");
+            System.exit(1);
+        }
+        int runs = Integer.parseInt(args[0]);
+        URI url = URI.create(args[1]);
+        HttpRequest probe = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(30)).GET().build();
+        HttpRequest reportRequest = HttpRequest.newBuilder(url.resolve("/api/startup"))
+                .timeout(Duration.ofSeconds(30)).GET().build();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Dflickcritic.startup.steps=" + STARTUP_STEPS);
+        command.addAll(Arrays.asList(args).subList(2, args.length));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(500)).build();
+        ObjectMapper mapper = new ObjectMapper();
+        File log = new File("startup-benchmark.log");
+
+        long[] firstRequest = new long[runs];
+        List<StartupReport> reports = new ArrayList<>();
+        for (int run = 0; run < runs; run++) {
+            long launched = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(log))
+                    .start();
+            try {
+                firstRequest[run] = RestartTimer.awaitFirstResponse(client, probe, process, launched);
+                reports.add(awaitReport(client, reportRequest, mapper));
+            } finally {
+                process.destroy();
+                if (!process.waitFor(1, TimeUnit.MINUTES)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+            System.out.printf("run %d: first response after %d ms, ready after %d ms%n",
+                    run + 1, firstRequest[run], reports.get(run).totalMillis());
+        }
+
+        System.out.printf("%nmedian: first response %d ms, ready %d ms%n", RestartTimer.median(firstRequest),
+                RestartTimer.median(reports.stream().mapToLong(StartupReport::totalMillis).toArray()));
+        printMedians("startup phases", reports, StartupReport::phases);
+        printMedians("context refresh", reports, StartupReport::refresh);
+        System.out.println("\nslowest beans, own time (last run):");
+        for (StartupPhase bean : reports.get(reports.size() - 1).slowestBeans()) {
+            System.out.printf("  %-60s %6d ms%n", bean.name(), bean.millis());
+        }
+    }
+
+    // The first response can come before the ready listeners have run; wait until the report covers them
+    private static StartupReport awaitReport(HttpClient client, HttpRequest request, ObjectMapper mapper)
+            throws Exception {
+        long deadline = System.nanoTime() + REPORT_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("GET " + request.uri() + " answered " + response.statusCode()
+                            + ": " + response.body());
+                }
+                StartupReport report = mapper.readValue(response.body(), StartupReport.class);
+                if (report.phases().stream().anyMatch(phase -> READY_PHASE.equals(phase.name()))) {
+                    return report;
+                }
+            } catch (IOException e) {
+                // Connection refused or reset; try again
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("No complete startup report from " + request.uri() + " within "
+                + REPORT_TIMEOUT);
+    }
+
+    private static void printMedians(String title, List<StartupReport> reports,
+                                     Function<StartupReport, List<StartupPhase>> phases) {
+        Map<String, List<Long>> byName = new LinkedHashMap<>();
+        for (StartupReport report : reports) {
+            for (StartupPhase phase : phases.apply(report)) {
+                byName.computeIfAbsent(phase.name(), name -> new ArrayList<>()).add(phase.millis());
+            }
+        }
+        System.out.printf("%n%s (median):%n", title);
+        byName.forEach((name, millis) -> System.out.printf("  %-60s %6d ms%n", name,
+                RestartTimer.median(millis.stream().mapToLong(Long::longValue).toArray())));
+    }
+}
@@ -1,16 +1,26 @@
 package com.flickcritic;
 
+import com.flickcritic.pagination.CursorPage;
+import com.flickcritic.startup.StartupRecorder;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @SpringBootApplication
+@EnableScheduling
 public class FlickCriticApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(FlickCriticApplication.class, args);
+        SpringApplication application = new SpringApplication(FlickCriticApplication.class);
+        // Opt-in recording of startup steps for GET /startup, e.g. -Dflickcritic.startup.steps=20000 (see StartupBenchmark)
+        int startupSteps = Integer.getInteger("flickcritic.startup.steps", 0);
+        if (startupSteps > 0) {
+            application.setApplicationStartup(new StartupRecorder(startupSteps));
+        }
+        application.run(args);
     }
 
     @Bean
@@ -21,6 +31,7 @@ public class FlickCriticApplication {
                 registry.addMapping("/**")
                         .allowedOrigins("http://localhost:5173")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                        .exposedHeaders(CursorPage.NEXT_CURSOR_HEADER)
                         .allowCredentials(true);
             }
         };
@@ -0,0 +1,57 @@
+package com.flickcritic.auth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.regex.Pattern;
+
+// BCrypt password hashing. The strength (log2 rounds) sets the cost of every login: see PasswordHashBenchmark.
+// Passwords stored before hashing was introduced are still accepted and are re-hashed on the next login.
+@Component
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\A\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+    // Salt and digest of a well-formed hash that no password produces; only the cost in front of it matters
+    private static final String DECOY_SALT_AND_DIGEST = "N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private final BCryptPasswordEncoder encoder;
+    // Verified against when the email is unknown, so a miss costs as much as a wrong password
+    private final String unknownUserHash;
+
+    public PasswordHasher(@Value("${flickcritic.auth.bcrypt-strength:10}") int strength) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        // Built rather than hashed: an encode at startup costs seconds on a cold JVM
+        this.unknownUserHash = String.format("$2a$%02d$%s", strength, DECOY_SALT_AND_DIGEST);
+    }
+
+    public String hash(String rawPassword) {
+        return encoder.encode(rawPassword);
+    }
+
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (storedPassword == null) {
+            return false;
+        }
+        if (!isHash(storedPassword)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        return encoder.matches(rawPassword, storedPassword);
+    }
+
+    public void matchUnknownUser(String rawPassword) {
+        encoder.matches(rawPassword, unknownUserHash);
+    }
+
+    // Plaintext from before hashing, or a hash made with a lower strength than configured
+    public boolean needsRehash(String storedPassword) {
+        return !isHash(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+
+    private static boolean isHash(String storedPassword) {
+        return BCRYPT_HASH.matcher(storedPassword).matches();
+    }
+}
@@ -0,0 +1,39 @@
+package com.flickcritic.auth;
+
+import com.flickcritic.dto.UserSummary;
+
+import java.time.Instant;
+
+// A signed-in user behind an opaque token; the user details are refreshed in place when the user is edited
+public final class Session {
+
+    private final String token;
+    private final Instant expiresAt;
+    private volatile UserSummary user;
+
+    Session(String token, UserSummary user, Instant expiresAt) {
+        this.token = token;
+        this.user = user;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public UserSummary getUser() {
+        return user;
+    }
+
+    void setUser(UserSummary user) {
+        this.user = user;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,46 @@
+package com.flickcritic.auth;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Resolves "Authorization: Bearer <token>" against the session store and exposes the session as a request
+// attribute. Requests without a valid token go through anonymously; endpoints that need a user check for it.
+@Component
+public class SessionInterceptor implements HandlerInterceptor {
+
+    public static final String SESSION_ATTRIBUTE = "flickcritic.session";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final SessionStore sessionStore;
+
+    @Autowired
+    public SessionInterceptor(SessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String token = bearerToken(request);
+        if (token != null) {
+            Session session = sessionStore.resolve(token);
+            if (session != null) {
+                request.setAttribute(SESSION_ATTRIBUTE, session);
+            }
+        }
+        return true;
+    }
+
+    public static String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = header.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+}
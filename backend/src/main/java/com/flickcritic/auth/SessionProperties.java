@@ -0,0 +1,33 @@
+package com.flickcritic.auth;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "flickcritic.sessions")
+public class SessionProperties {
+
+    // Fixed lifetime of a session from login
+    private Duration ttl = Duration.ofHours(12);
+
+    // Once reached, each new login evicts the oldest session
+    private int maxSessions = 100_000;
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public void setMaxSessions(int maxSessions) {
+        this.maxSessions = maxSessions;
+    }
+}
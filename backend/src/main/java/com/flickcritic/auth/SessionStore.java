@@ -0,0 +1,140 @@
+package com.flickcritic.auth;
+
+import com.flickcritic.dto.UserSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Signed-in sessions held in memory, keyed by an opaque random token, so resolving the user behind a request is
+// one hash lookup with no database access. Every session lives for the same fixed TTL from login, so creation
+// order is expiry order: the head of the FIFO is both the next session to expire and the one evicted when the
+// store is full. Expired sessions are dropped when looked up and by a periodic sweep of the head.
+//
+// Sessions do not survive a restart; clients sign in again.
+@Component
+public class SessionStore {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SessionProperties properties;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    // Creation order; may still hold sessions already removed by logout, skipped when they reach the head
+    private final Queue<Session> byExpiry = new ArrayDeque<>();
+
+    private final Counter created;
+    private final Counter expired;
+    private final Counter evicted;
+    private final Counter loggedOut;
+    private final Counter revoked;
+
+    @Autowired
+    public SessionStore(SessionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("flickcritic.sessions.active", sessions, Map::size).register(meterRegistry);
+        this.created = meterRegistry.counter("flickcritic.sessions.created");
+        this.expired = meterRegistry.counter("flickcritic.sessions.removed", "reason", "expired");
+        this.evicted = meterRegistry.counter("flickcritic.sessions.removed", "reason", "capacity");
+        this.loggedOut = meterRegistry.counter("flickcritic.sessions.removed", "reason", "logout");
+        this.revoked = meterRegistry.counter("flickcritic.sessions.removed", "reason", "revoked");
+    }
+
+    public Session create(UserSummary user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(token, user, Instant.now().plus(properties.getTtl()));
+
+        synchronized (byExpiry) {
+            sessions.put(token, session);
+            byExpiry.add(session);
+            while (sessions.size() > properties.getMaxSessions()) {
+                Session oldest = byExpiry.poll();
+                if (oldest == null) {
+                    break;
+                }
+                if (sessions.remove(oldest.getToken(), oldest)) {
+                    evicted.increment();
+                }
+            }
+        }
+        created.increment();
+        return session;
+    }
+
+    // Null for an unknown, expired or logged-out token
+    public Session resolve(String token) {
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        if (session.isExpired(Instant.now())) {
+            if (sessions.remove(token, session)) {
+                expired.increment();
+            }
+            return null;
+        }
+        return session;
+    }
+
+    public boolean invalidate(String token) {
+        if (sessions.remove(token) != null) {
+            loggedOut.increment();
+            return true;
+        }
+        return false;
+    }
+
+    // Ends every session of a deleted user, or of one whose password changed
+    public void invalidateUser(Long userId) {
+        sessions.values().removeIf(session -> {
+            if (session.getUser().id().equals(userId)) {
+                revoked.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // Keeps the user details carried by open sessions current after a profile edit
+    public void refreshUser(UserSummary user) {
+        for (Session session : sessions.values()) {
+            if (session.getUser().id().equals(user.id())) {
+                session.setUser(user);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${flickcritic.sessions.sweep-interval:60000}")
+    public void sweep() {
+        Instant now = Instant.now();
+        synchronized (byExpiry) {
+            Session oldest;
+            while ((oldest = byExpiry.peek()) != null && (oldest.isExpired(now) || !isOpen(oldest))) {
+                byExpiry.poll();
+                if (sessions.remove(oldest.getToken(), oldest)) {
+                    expired.increment();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private boolean isOpen(Session session) {
+        return sessions.get(session.getToken()) == session;
+    }
+}
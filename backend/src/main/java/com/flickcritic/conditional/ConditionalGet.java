@@ -0,0 +1,40 @@
+package com.flickcritic.conditional;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Instant;
+
+// If-None-Match / If-Modified-Since evaluation for GET handlers, done before anything is loaded
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    // True if the client's copy is current. Either way the response carries the validators and no-cache, so clients
+    // revalidate on every poll instead of guessing a freshness lifetime from Last-Modified
+    public static boolean notModified(ServletWebRequest request, String etag, Instant lastModified) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return request.checkNotModified(etag, settledMillis(lastModified));
+    }
+
+    public static <T> ResponseEntity<T> notModifiedResponse() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+
+    // Last-Modified has one-second resolution, so it is only sent once the second of the change is over; otherwise a
+    // later change within that second would compare as not modified
+    private static long settledMillis(Instant lastModified) {
+        if (lastModified == null || lastModified.getEpochSecond() >= Instant.now().getEpochSecond()) {
+            return -1;
+        }
+        return lastModified.toEpochMilli();
+    }
+}
@@ -0,0 +1,88 @@
+package com.flickcritic.conditional;
+
+import com.flickcritic.config.SampleDataLoadedEvent;
+import com.flickcritic.dto.MovieVersion;
+import com.flickcritic.repository.MovieRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Latest committed version of each movie, held in memory so a conditional GET of a movie or its reviews is answered
+// without loading either. Every change to a movie or its reviews bumps movies.version and is published here after
+// commit; a movie not seen yet is read with one scalar query. Versions only move forward, so a read that raced a
+// commit can never replace a newer version with an older one.
+@Component
+public class MovieVersions {
+
+    // Kept for deleted movies, for the same reason
+    private static final MovieVersion DELETED = new MovieVersion(Long.MAX_VALUE, Instant.EPOCH);
+
+    private final MovieRepository movieRepository;
+    private final ConcurrentMap<Long, MovieVersion> versions = new ConcurrentHashMap<>();
+    // Latest change to any movie or review, for Last-Modified on list endpoints
+    private final AtomicReference<Instant> catalogLastModified = new AtomicReference<>(Instant.now());
+
+    @Autowired
+    public MovieVersions(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    // Seed data and the synthetic generator write without publishing versions
+    @EventListener({ApplicationReadyEvent.class, SampleDataLoadedEvent.class})
+    public void markReady() {
+        touchCatalog(Instant.now());
+    }
+
+    // Null if the movie does not exist
+    public MovieVersion get(Long movieId) {
+        MovieVersion version = versions.get(movieId);
+        if (version == null) {
+            version = movieRepository.findVersionById(movieId)
+                    .map(loaded -> versions.merge(movieId, loaded, MovieVersions::newer))
+                    .orElse(null);
+        }
+        return version == DELETED ? null : version;
+    }
+
+    // Called after commit; the time of publication, not of the write, is when clients can first see the change
+    public void advance(Long movieId, long version) {
+        Instant now = Instant.now();
+        versions.merge(movieId, new MovieVersion(version, now), MovieVersions::newer);
+        touchCatalog(now);
+    }
+
+    public void remove(Long movieId) {
+        versions.put(movieId, DELETED);
+        touchCatalog(Instant.now());
+    }
+
+    public Instant getCatalogLastModified() {
+        return catalogLastModified.get();
+    }
+
+    public static String movieETag(Long movieId, MovieVersion version) {
+        return "movie-" + movieId + "-v" + version.version();
+    }
+
+    public static String detailETag(Long movieId, MovieVersion version) {
+        return "movie-" + movieId + "-detail-v" + version.version();
+    }
+
+    public static String reviewsETag(Long movieId, MovieVersion version) {
+        return "movie-" + movieId + "-reviews-v" + version.version();
+    }
+
+    private void touchCatalog(Instant changedAt) {
+        catalogLastModified.accumulateAndGet(changedAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    private static MovieVersion newer(MovieVersion current, MovieVersion candidate) {
+        return candidate.version() > current.version() ? candidate : current;
+    }
+}
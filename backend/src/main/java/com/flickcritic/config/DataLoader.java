@@ -1,46 +1,91 @@
 package com.flickcritic.config;
 
+import com.flickcritic.auth.PasswordHasher;
 import com.flickcritic.model.Movie;
+import com.flickcritic.model.RatingHistogram;
 import com.flickcritic.model.Review;
 import com.flickcritic.model.User;
 import com.flickcritic.repository.MovieRepository;
 import com.flickcritic.repository.ReviewRepository;
 import com.flickcritic.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Component
+@Profile("!synthetic")
 public class DataLoader implements CommandLineRunner {
 
     private final MovieRepository movieRepository;
     private final UserRepository userRepository;
     private final ReviewRepository reviewRepository;
+    private final PasswordHasher passwordHasher;
+    private final ApplicationStartup applicationStartup;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean async;
 
     @Autowired
-    public DataLoader(MovieRepository movieRepository, UserRepository userRepository, ReviewRepository reviewRepository) {
+    public DataLoader(MovieRepository movieRepository, UserRepository userRepository, ReviewRepository reviewRepository,
+                      PasswordHasher passwordHasher, ApplicationStartup applicationStartup,
+                      ApplicationEventPublisher eventPublisher, @Value("${flickcritic.seed.async:false}") boolean async) {
         this.movieRepository = movieRepository;
         this.userRepository = userRepository;
         this.reviewRepository = reviewRepository;
+        this.passwordHasher = passwordHasher;
+        this.applicationStartup = applicationStartup;
+        this.eventPublisher = eventPublisher;
+        this.async = async;
     }
 
     @Override
     public void run(String... args) {
+        if (async) {
+            // Off the startup path: the application reports ready while the rows are still being written
+            new Thread(this::loadInBackground, "sample-data-loader").start();
+            return;
+        }
+        StartupStep step = applicationStartup.start("flickcritic.sample-data.load");
+        load();
+        step.end();
+    }
+
+    private void loadInBackground() {
+        if (load()) {
+            eventPublisher.publishEvent(new SampleDataLoadedEvent(this));
+        }
+    }
+
+    // False if the database already had rows
+    private boolean load() {
+        // A file-backed database keeps its rows across restarts; only seed a fresh one
+        if (userRepository.count() > 0 || movieRepository.count() > 0) {
+            System.out.println("Database already populated; skipping sample data");
+            return false;
+        }
         loadUsers();
         loadMovies();
         loadReviews();
+        return true;
     }
 
     private void loadUsers() {
+        String password = passwordHasher.hash("password");
         List<User> users = Arrays.asList(
-            new User(null, "John Doe", "john@example.com", "password", "user", new ArrayList<>()),
-            new User(null, "Jane Smith", "jane@example.com", "password", "critic", new ArrayList<>()),
-            new User(null, "Admin User", "admin@example.com", "password", "admin", new ArrayList<>())
+            new User(null, "John Doe", "john@example.com", password, "user", new ArrayList<>()),
+            new User(null, "Jane Smith", "jane@example.com", password, "critic", new ArrayList<>()),
+            new User(null, "Admin User", "admin@example.com", password, "admin", new ArrayList<>())
         );
         userRepository.saveAll(users);
         System.out.println("Sample users loaded");
@@ -50,16 +95,16 @@ public class DataLoader implements CommandLineRunner {
         List<Movie> movies = Arrays.asList(
             new Movie(null, "Avatar", "file:///C:/demo_movie/Avatar.jpg", 
                     "A paraplegic Marine dispatched to the moon Pandora on a unique mission becomes torn between following his orders and protecting the world he feels is his home.", 
-                    4.5, new ArrayList<>()),
+                    null, new ArrayList<>()),
             new Movie(null, "Black Panther", "file:///C:/demo_movie/Black Panther.jpg", 
                     "T'Challa, heir to the hidden but advanced kingdom of Wakanda, must step forward to lead his people into a new future and must confront a challenger from his country's past.", 
-                    4.6, new ArrayList<>()),
+                    null, new ArrayList<>()),
             new Movie(null, "Spiderman", "file:///C:/demo_movie/Spiderman.jpg", 
                     "After being bitten by a genetically-modified spider, a shy teenager gains spider-like abilities that he uses to fight injustice as a masked superhero and face a vengeful enemy.", 
-                    4.4, new ArrayList<>()),
+                    null, new ArrayList<>()),
             new Movie(null, "Archer", "file:///C:/demo_movie/Archer.jpg", 
                     "Covert black ops and espionage take a back seat to zany personalities and relationships between secret agents and drones.", 
-                    4.3, new ArrayList<>())
+                    null, new ArrayList<>())
         );
         movieRepository.saveAll(movies);
         System.out.println("Sample movies loaded");
@@ -95,11 +140,12 @@ public class DataLoader implements CommandLineRunner {
         
         reviewRepository.saveAll(reviews);
         
-        // Update movie ratings
-        for (Movie movie : movies) {
-            movie.calculateAverageRating();
-            movieRepository.save(movie);
+        // Update movie rating aggregates, one increment per movie
+        Map<Long, RatingHistogram> ratings = new TreeMap<>();
+        for (Review review : reviews) {
+            ratings.computeIfAbsent(review.getMovie().getId(), id -> new RatingHistogram()).add(review.getRating(), 1);
         }
+        ratings.forEach(movieRepository::incrementRatings);
         
         System.out.println("Sample reviews loaded");
     }
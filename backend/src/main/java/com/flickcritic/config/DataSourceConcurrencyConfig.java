@@ -0,0 +1,52 @@
+package com.flickcritic.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Enabled by flickcritic.datasource.max-concurrent-connections (see application-virtual-threads.properties)
+@Configuration
+@ConditionalOnProperty("flickcritic.datasource.max-concurrent-connections")
+public class DataSourceConcurrencyConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        int maxConnections = environment.getRequiredProperty(
+                "flickcritic.datasource.max-concurrent-connections", Integer.class);
+        Duration acquireTimeout = environment.getProperty(
+                "flickcritic.datasource.acquire-timeout", Duration.class, Duration.ofSeconds(5));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, maxConnections, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionPermitMetrics(DataSource dataSource) throws SQLException {
+        ConnectionLimitingDataSource limiter = dataSource.unwrap(ConnectionLimitingDataSource.class);
+        return registry -> {
+            Gauge.builder("flickcritic.datasource.permits.max", limiter, ConnectionLimitingDataSource::getMaxConnections)
+                    .register(registry);
+            Gauge.builder("flickcritic.datasource.permits.available", limiter,
+                            ConnectionLimitingDataSource::getAvailablePermits)
+                    .register(registry);
+            Gauge.builder("flickcritic.datasource.permits.waiting", limiter,
+                            ConnectionLimitingDataSource::getWaitingThreads)
+                    .description("Threads queued for a database connection permit")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.flickcritic.config;
+
+import org.springframework.context.ApplicationEvent;
+
+// Published when DataLoader finishes seeding in the background (flickcritic.seed.async), after the application
+// is already up, so the in-memory views built at startup can pick up the new rows
+public class SampleDataLoadedEvent extends ApplicationEvent {
+
+    public SampleDataLoadedEvent(Object source) {
+        super(source);
+    }
+}
@@ -0,0 +1,397 @@
+package com.flickcritic.config;
+
+import com.flickcritic.auth.PasswordHasher;
+import com.flickcritic.model.RatingHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Seeds a large, deterministic dataset in place of DataLoader's fixed sample rows
+@Component
+@Profile("synthetic")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String INSERT_USER =
+            "insert into users (id, name, email, password, role) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_MOVIE =
+            "insert into movies (id, title, image_url, description, average_rating, rating_sum, review_count) " +
+            "values (?, ?, ?, ?, 0, 0, 0)";
+    private static final String INSERT_REVIEW =
+            "insert into reviews (id, movie_id, user_id, username, rating, comment, date) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_MOVIE_RATING =
+            "update movies set rating_sum = ?, review_count = ?, average_rating = ?, rating_count_1 = ?, " +
+            "rating_count_2 = ?, rating_count_3 = ?, rating_count_4 = ?, rating_count_5 = ? where id = ?";
+
+    // Rows (or users, for reviews) handed to one worker task
+    private static final int ROWS_PER_TASK = 10_000;
+    private static final int USERS_PER_TASK = 1_000;
+    // Matches the allocationSize of the entity sequence generators
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+    private static final int MAX_REVIEWS_PER_USER = 2_000;
+    private static final double MEAN_REVIEW_DELAY_DAYS = 120.0;
+
+    // Independent random streams per row kind, so changing one count doesn't reshuffle the others
+    private static final long USER_STREAM = 1;
+    private static final long MOVIE_STREAM = 2;
+    private static final long REVIEW_STREAM = 3;
+    private static final long RANK_STREAM = 4;
+
+    private static final String[] TITLE_WORDS = {
+            "Silent", "Crimson", "Midnight", "Lost", "Golden", "Last", "Broken", "Hidden", "Iron", "Electric",
+            "Frozen", "Wild", "Secret", "Burning", "Distant", "Shadow", "River", "Empire", "Horizon", "Garden",
+            "City", "Storm", "Kingdom", "Signal", "Echo", "Voyage", "Machine", "Harbor", "Legacy", "Orbit"
+    };
+    private static final String[] DESCRIPTION_WORDS = {
+            "a", "young", "detective", "family", "journey", "across", "the", "ocean", "war", "love", "betrayal",
+            "hidden", "truth", "small", "town", "future", "robot", "heist", "friendship", "revenge", "mystery",
+            "comedy", "space", "crew", "survive", "island", "secret", "past", "race", "against", "time", "musician",
+            "dream", "ancient", "curse", "rebellion", "empire", "unlikely", "hero", "must", "confront", "fear"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SyntheticDataProperties properties;
+    private final PasswordHasher passwordHasher;
+
+    @Autowired
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, SyntheticDataProperties properties,
+                                  PasswordHasher passwordHasher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.passwordHasher = passwordHasher;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long existingMovies = jdbcTemplate.queryForObject("select count(*) from movies", Long.class);
+        if (existingMovies != null && existingMovies > 0) {
+            log.info("Database already holds {} movies; reusing it instead of generating", existingMovies);
+            return;
+        }
+
+        log.info("Generating synthetic dataset: {} users, {} movies, ~{} reviews, seed {}, {} threads",
+                properties.getUsers(), properties.getMovies(), properties.getReviews(), properties.getSeed(),
+                properties.getThreads());
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads());
+        try {
+            long start = System.nanoTime();
+            insertUsers(executor);
+            MovieTraits traits = insertMovies(executor);
+            long reviews = insertReviews(executor, traits);
+            restartSequences(reviews);
+            report("rows in total", properties.getUsers() + properties.getMovies() + reviews, start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void insertUsers(ExecutorService executor) throws Exception {
+        long start = System.nanoTime();
+        // Every synthetic user signs in with "password"; one shared hash rather than a bcrypt round per row
+        String passwordHash = passwordHasher.hash("password");
+        forEachRange(executor, properties.getUsers(), ROWS_PER_TASK, (from, to) -> {
+            List<Object[]> batch = new ArrayList<>(properties.getBatchSize());
+            for (int i = from; i < to; i++) {
+                SplittableRandom random = rowRandom(USER_STREAM, i);
+                long id = i + 1L;
+                String role = random.nextInt(10) == 0 ? "critic" : "user";
+                batch.add(new Object[]{id, "User " + id, "user" + id + "@example.com", passwordHash, role});
+                flushIfFull(INSERT_USER, batch);
+            }
+            flush(INSERT_USER, batch);
+        });
+        report("users", properties.getUsers(), start);
+    }
+
+    private MovieTraits insertMovies(ExecutorService executor) throws Exception {
+        long start = System.nanoTime();
+        MovieTraits traits = new MovieTraits(properties.getMovies());
+        long lastDay = properties.getEndDate().toEpochDay();
+        int span = properties.getYears() * 365;
+
+        forEachRange(executor, properties.getMovies(), ROWS_PER_TASK, (from, to) -> {
+            List<Object[]> batch = new ArrayList<>(properties.getBatchSize());
+            for (int i = from; i < to; i++) {
+                SplittableRandom random = rowRandom(MOVIE_STREAM, i);
+                traits.quality[i] = (float) Math.max(1.0, Math.min(5.0, 3.4 + random.nextGaussian() * 0.7));
+                traits.releaseDay[i] = lastDay - random.nextInt(span);
+                String title = words(random, TITLE_WORDS, 2 + random.nextInt(2)) + " " + (i + 1);
+                String description = capitalize(words(random, DESCRIPTION_WORDS, 12 + random.nextInt(20))) + ".";
+                batch.add(new Object[]{i + 1L, title, "/placeholder.svg", description});
+                flushIfFull(INSERT_MOVIE, batch);
+            }
+            flush(INSERT_MOVIE, batch);
+        });
+        report("movies", properties.getMovies(), start);
+        return traits;
+    }
+
+    private long insertReviews(ExecutorService executor, MovieTraits traits) throws Exception {
+        int users = properties.getUsers();
+        int movies = properties.getMovies();
+        if (users == 0 || movies == 0) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        ZipfSampler popularity = new ZipfSampler(movies, properties.getZipfExponent(),
+                rowRandom(RANK_STREAM, 0));
+        double meanPerUser = (double) properties.getReviews() / users;
+        int maxPerUser = Math.max(1, Math.min(movies / 2, MAX_REVIEWS_PER_USER));
+
+        // Per-user counts are drawn up front so every user owns a fixed, contiguous block of review ids
+        long[] firstReviewId = new long[users + 1];
+        firstReviewId[0] = 1;
+        for (int u = 0; u < users; u++) {
+            firstReviewId[u + 1] = firstReviewId[u] + reviewCount(rowRandom(REVIEW_STREAM, u), meanPerUser, maxPerUser);
+        }
+        long totalReviews = firstReviewId[users] - 1;
+
+        BlockingQueue<RatingAccumulator> accumulators = new ArrayBlockingQueue<>(properties.getThreads());
+        for (int i = 0; i < properties.getThreads(); i++) {
+            accumulators.add(new RatingAccumulator(movies));
+        }
+        long lastDay = properties.getEndDate().toEpochDay();
+
+        forEachRange(executor, users, USERS_PER_TASK, (from, to) -> {
+            RatingAccumulator totals = accumulators.take();
+            try {
+                List<Object[]> batch = new ArrayList<>(properties.getBatchSize());
+                Set<Integer> reviewed = new HashSet<>();
+                for (int u = from; u < to; u++) {
+                    SplittableRandom random = rowRandom(REVIEW_STREAM, u);
+                    int count = reviewCount(random, meanPerUser, maxPerUser);
+                    long reviewId = firstReviewId[u];
+                    String username = "User " + (u + 1);
+                    reviewed.clear();
+                    for (int j = 0; j < count; j++) {
+                        int movie;
+                        do {
+                            movie = popularity.sample(random);
+                        } while (!reviewed.add(movie));
+
+                        int rating = (int) Math.max(1, Math.min(5, Math.round(traits.quality[movie] + random.nextGaussian())));
+                        long remaining = lastDay - traits.releaseDay[movie];
+                        long delay = (long) (random.nextExponential() * MEAN_REVIEW_DELAY_DAYS);
+                        if (delay > remaining) {
+                            delay = random.nextLong(remaining + 1);
+                        }
+                        LocalDate date = LocalDate.ofEpochDay(traits.releaseDay[movie] + delay);
+                        String comment = capitalize(words(random, DESCRIPTION_WORDS, 5 + random.nextInt(10))) + ".";
+
+                        batch.add(new Object[]{reviewId++, movie + 1L, u + 1L, username, rating, comment, date});
+                        totals.add(movie, rating);
+                        flushIfFull(INSERT_REVIEW, batch);
+                    }
+                }
+                flush(INSERT_REVIEW, batch);
+            } finally {
+                accumulators.put(totals);
+            }
+        });
+        report("reviews", totalReviews, start);
+
+        updateMovieRatings(executor, accumulators);
+        return totalReviews;
+    }
+
+    // Write the rating aggregates once per movie from the merged per-worker totals
+    private void updateMovieRatings(ExecutorService executor, BlockingQueue<RatingAccumulator> accumulators)
+            throws Exception {
+        long start = System.nanoTime();
+        RatingAccumulator merged = new RatingAccumulator(properties.getMovies());
+        for (RatingAccumulator totals : accumulators) {
+            merged.addAll(totals);
+        }
+        forEachRange(executor, properties.getMovies(), ROWS_PER_TASK, (from, to) -> {
+            List<Object[]> batch = new ArrayList<>(properties.getBatchSize());
+            for (int i = from; i < to; i++) {
+                if (merged.counts[i] > 0) {
+                    int[] histogram = merged.histogram;
+                    int bucket = i * RatingHistogram.MAX_RATING;
+                    batch.add(new Object[]{merged.sums[i], merged.counts[i],
+                            (double) merged.sums[i] / merged.counts[i], histogram[bucket], histogram[bucket + 1],
+                            histogram[bucket + 2], histogram[bucket + 3], histogram[bucket + 4], i + 1L});
+                    flushIfFull(UPDATE_MOVIE_RATING, batch);
+                }
+            }
+            flush(UPDATE_MOVIE_RATING, batch);
+        });
+        report("movie rating aggregates", properties.getMovies(), start);
+    }
+
+    // Move the id sequences past the explicitly assigned ids
+    private void restartSequences(long reviews) {
+        jdbcTemplate.execute("alter sequence users_seq restart with " + (properties.getUsers() + 1L + SEQUENCE_ALLOCATION_SIZE));
+        jdbcTemplate.execute("alter sequence movies_seq restart with " + (properties.getMovies() + 1L + SEQUENCE_ALLOCATION_SIZE));
+        jdbcTemplate.execute("alter sequence reviews_seq restart with " + (reviews + 1L + SEQUENCE_ALLOCATION_SIZE));
+    }
+
+    private void forEachRange(ExecutorService executor, int total, int rangeSize, RangeTask task) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < total; from += rangeSize) {
+            int start = from;
+            int end = Math.min(from + rangeSize, total);
+            futures.add(executor.submit(() -> {
+                task.run(start, end);
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private void flushIfFull(String sql, List<Object[]> batch) {
+        if (batch.size() >= properties.getBatchSize()) {
+            flush(sql, batch);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    // Geometric number of reviews with the requested mean
+    private static int reviewCount(SplittableRandom random, double mean, int max) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double p = 1.0 / (mean + 1.0);
+        double draw = Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p));
+        return (int) Math.min(draw, max);
+    }
+
+    // A row's random stream depends only on the seed, the row kind and the row index, never on threading
+    private SplittableRandom rowRandom(long stream, long index) {
+        long h = properties.getSeed() * 0x9E3779B97F4A7C15L + stream * 0xC2B2AE3D27D4EB4FL + index;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return new SplittableRandom(h ^ (h >>> 33));
+    }
+
+    private static String words(SplittableRandom random, String[] vocabulary, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(vocabulary[random.nextInt(vocabulary.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static void report(String label, long rows, long startNanos) {
+        long millis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Generated {} {} in {} ms ({} rows/s)", rows, label, millis, rows * 1000 / millis);
+    }
+
+    @FunctionalInterface
+    private interface RangeTask {
+        void run(int from, int to) throws Exception;
+    }
+
+    // Per-movie attributes that drive review ratings and dates
+    private static final class MovieTraits {
+        private final float[] quality;
+        private final long[] releaseDay;
+
+        MovieTraits(int movies) {
+            this.quality = new float[movies];
+            this.releaseDay = new long[movies];
+        }
+    }
+
+    // Samples movie indexes with Zipfian popularity; popularity ranks are shuffled across movie ids
+    private static final class ZipfSampler {
+        private final double[] cumulative;
+        private final int[] movieByRank;
+
+        ZipfSampler(int movies, double exponent, SplittableRandom random) {
+            cumulative = new double[movies];
+            double sum = 0.0;
+            for (int rank = 0; rank < movies; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            movieByRank = new int[movies];
+            for (int i = 0; i < movies; i++) {
+                movieByRank[i] = i;
+            }
+            for (int i = movies - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = movieByRank[i];
+                movieByRank[i] = movieByRank[j];
+                movieByRank[j] = swap;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int rank = Arrays.binarySearch(cumulative, target);
+            if (rank < 0) {
+                rank = -rank - 1;
+            }
+            return movieByRank[Math.min(rank, movieByRank.length - 1)];
+        }
+    }
+
+    private static final class RatingAccumulator {
+        private final long[] sums;
+        private final int[] counts;
+        // Five buckets per movie, flattened
+        private final int[] histogram;
+
+        RatingAccumulator(int movies) {
+            this.sums = new long[movies];
+            this.counts = new int[movies];
+            this.histogram = new int[movies * RatingHistogram.MAX_RATING];
+        }
+
+        void add(int movie, int rating) {
+            sums[movie] += rating;
+            counts[movie]++;
+            histogram[movie * RatingHistogram.MAX_RATING + rating - 1]++;
+        }
+
+        void addAll(RatingAccumulator other) {
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += other.sums[i];
+                counts[i] += other.counts[i];
+            }
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+        }
+    }
+}
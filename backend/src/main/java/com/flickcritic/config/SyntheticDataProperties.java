@@ -0,0 +1,96 @@
+package com.flickcritic.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@ConfigurationProperties(prefix = "flickcritic.synthetic")
+public class SyntheticDataProperties {
+
+    private int users = 100_000;
+    private int movies = 100_000;
+    // Target total; each user's count is drawn around the mean, so the actual total varies slightly
+    private long reviews = 1_000_000;
+    private long seed = 42;
+    private int threads = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+    private int batchSize = 1000;
+    // Exponent of the Zipf distribution of movie popularity
+    private double zipfExponent = 1.0;
+    private int years = 5;
+    // Date of the newest reviews; today unless set, so recent reviews fall inside the trending window
+    private LocalDate endDate = LocalDate.now();
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public int getMovies() {
+        return movies;
+    }
+
+    public void setMovies(int movies) {
+        this.movies = movies;
+    }
+
+    public long getReviews() {
+        return reviews;
+    }
+
+    public void setReviews(long reviews) {
+        this.reviews = reviews;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public void setZipfExponent(double zipfExponent) {
+        this.zipfExponent = zipfExponent;
+    }
+
+    public int getYears() {
+        return years;
+    }
+
+    public void setYears(int years) {
+        this.years = years;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+}
@@ -0,0 +1,36 @@
+package com.flickcritic.controller;
+
+import com.flickcritic.dto.ImportResult;
+import com.flickcritic.service.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/import")
+public class ImportController {
+
+    private final ImportService importService;
+
+    @Autowired
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    // Bodies are newline-delimited JSON, read as a stream and committed in fixed-size chunks
+    @PostMapping(value = "/movies", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportResult> importMovies(InputStream body) throws IOException {
+        return ResponseEntity.ok(importService.importMovies(body));
+    }
+
+    @PostMapping(value = "/reviews", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportResult> importReviews(InputStream body) throws IOException {
+        return ResponseEntity.ok(importService.importReviews(body));
+    }
+}
@@ -0,0 +1,45 @@
+package com.flickcritic.controller;
+
+import com.flickcritic.dto.RatingConsistencyReport;
+import com.flickcritic.service.BackupService;
+import com.flickcritic.service.RatingConsistencyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/maintenance")
+public class MaintenanceController {
+
+    private final RatingConsistencyService ratingConsistencyService;
+    private final BackupService backupService;
+
+    @Autowired
+    public MaintenanceController(RatingConsistencyService ratingConsistencyService, BackupService backupService) {
+        this.ratingConsistencyService = ratingConsistencyService;
+        this.backupService = backupService;
+    }
+
+    // Compare rating histograms and aggregates against the reviews table; repair=false only reports drift
+    @PostMapping("/rating-consistency")
+    public ResponseEntity<RatingConsistencyReport> checkRatingConsistency(
+            @RequestParam(defaultValue = "true") boolean repair) {
+        return ResponseEntity.ok(ratingConsistencyService.check(repair));
+    }
+
+    // Online snapshot of the file-backed database; reads and writes carry on while it is copied
+    @PostMapping("/backup")
+    public ResponseEntity<?> backup() {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(backupService.backup());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
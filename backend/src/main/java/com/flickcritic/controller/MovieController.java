@@ -1,56 +1,194 @@
 package com.flickcritic.controller;
 
+import com.flickcritic.conditional.ConditionalGet;
+import com.flickcritic.conditional.MovieVersions;
+import com.flickcritic.dto.MovieCard;
+import com.flickcritic.dto.MovieVersion;
+import com.flickcritic.dto.RankedMovie;
+import com.flickcritic.dto.RatingDistribution;
+import com.flickcritic.dto.TrendingMovie;
 import com.flickcritic.model.Movie;
+import com.flickcritic.pagination.PageCursor;
+import com.flickcritic.pagination.PaginationProperties;
+import com.flickcritic.responsecache.ResponseCache;
+import com.flickcritic.service.MovieDetailService;
 import com.flickcritic.service.MovieService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/movies")
 public class MovieController {   //localhost:8080/movies/8
 
     private final MovieService movieService;
+    private final MovieDetailService movieDetailService;
+    private final PaginationProperties paginationProperties;
+    private final MovieVersions movieVersions;
+    private final ResponseCache responseCache;
 
     @Autowired
-    public MovieController(MovieService movieService) {
+    public MovieController(MovieService movieService, MovieDetailService movieDetailService,
+                           PaginationProperties paginationProperties, MovieVersions movieVersions,
+                           ResponseCache responseCache) {
         this.movieService = movieService;
+        this.movieDetailService = movieDetailService;
+        this.paginationProperties = paginationProperties;
+        this.movieVersions = movieVersions;
+        this.responseCache = responseCache;
     }
 
     @GetMapping
-    public ResponseEntity<List<Movie>> getAllMovies(
-            @RequestParam(required = false) String search) {
+    public ResponseEntity<?> getAllMovies(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, null, movieVersions.getCatalogLastModified())) {
+            return ConditionalGet.notModifiedResponse();
+        }
+        int pageSize = paginationProperties.resolve(limit);
+        if (ids != null) {
+            return getMoviesByIds(ids, request);
+        }
         if (search != null && !search.trim().isEmpty()) {
-            return ResponseEntity.ok(movieService.searchMovies(search));
+            return responseCache.forCatalog("movies?search=" + search.trim() + "&limit=" + pageSize, request,
+                    () -> ResponseEntity.ok(movieService.searchMovies(search, pageSize)));
         }
-        return ResponseEntity.ok(movieService.getAllMovies());
+        if (unpaged) {
+            return responseCache.forCatalog("movies?unpaged", request,
+                    () -> ResponseEntity.ok(movieService.getAllMovies()));
+        }
+        return responseCache.forCatalog("movies?cursor=" + cursor + "&limit=" + pageSize, request, () -> {
+            PageCursor after;
+            try {
+                after = PageCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            }
+            return movieService.getMoviesPage(after, pageSize).toResponseEntity();
+        });
     }
 
+    // Batch lookup for list pages holding movie ids, e.g. ?ids=3,1,2; one query, answered in the order asked for
+    private ResponseEntity<?> getMoviesByIds(List<Long> ids, ServletWebRequest request) {
+        if (ids.size() > paginationProperties.getMaxSize()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "At most " + paginationProperties.getMaxSize() + " ids per request"));
+        }
+        return responseCache.forCatalog("movies?ids=" + ids, request,
+                () -> ResponseEntity.ok(movieService.getMoviesByIds(ids)));
+    }
+
+    // Served from the in-memory ranking; never touches the database
+    @GetMapping("/top")
+    public ResponseEntity<List<RankedMovie>> getTopRatedMovies(@RequestParam(required = false) Integer limit,
+                                                               ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, null, movieVersions.getCatalogLastModified())) {
+            return ConditionalGet.notModifiedResponse();
+        }
+        return ResponseEntity.ok(movieService.getTopRatedMovies(paginationProperties.resolve(limit)));
+    }
+
+    // Scores also change when the day does, without any write, so there is no Last-Modified to validate against
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingMovie>> getTrendingMovies(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(movieService.getTrendingMovies(paginationProperties.resolve(limit)));
+    }
+
+    // A current client copy is confirmed from the in-memory version alone; the movie is only loaded otherwise, and
+    // then only when the encoded card of that version is not cached
     @GetMapping("/{id}")
-    public ResponseEntity<Movie> getMovieById(@PathVariable Long id) {
+    public ResponseEntity<?> getMovieById(@PathVariable Long id, ServletWebRequest request) {
+        MovieVersion version = movieVersions.get(id);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ConditionalGet.notModified(request, MovieVersions.movieETag(id, version), version.lastModified())) {
+            return ConditionalGet.notModifiedResponse();
+        }
+        return responseCache.forMovie(id, MovieVersions.movieETag(id, version), request,
+                () -> movieService.getMovieAtVersion(id, version.version())
+                        .<ResponseEntity<?>>map(movie -> ResponseEntity.ok(MovieCard.from(movie)))
+                        .orElse(ResponseEntity.notFound().build()));
+    }
+
+    // Item-to-item recommendations from review co-occurrence, served from an in-memory snapshot that is rebuilt in
+    // the background, so a new review shows up here only after the next rebuild
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<?> getSimilarMovies(@PathVariable Long id, @RequestParam(required = false) Integer limit,
+                                              ServletWebRequest request) {
+        if (movieVersions.get(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ConditionalGet.notModified(request, null, movieVersions.getCatalogLastModified())) {
+            return ConditionalGet.notModifiedResponse();
+        }
+        int pageSize = paginationProperties.resolve(limit);
+        return responseCache.forCatalog("movies/" + id + "/similar?limit=" + pageSize, request,
+                () -> ResponseEntity.ok(movieService.getSimilarMovies(id, pageSize)));
+    }
+
+    // The movie, its star distribution and its first page of reviews, read concurrently; 503 if they take longer
+    // than flickcritic.fan-out.timeout
+    @GetMapping("/{id}/detail")
+    public ResponseEntity<?> getMovieDetail(@PathVariable Long id,
+                                            @RequestParam(required = false) Integer reviewLimit,
+                                            ServletWebRequest request) {
+        MovieVersion version = movieVersions.get(id);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = MovieVersions.detailETag(id, version);
+        if (ConditionalGet.notModified(request, etag, version.lastModified())) {
+            return ConditionalGet.notModifiedResponse();
+        }
+        int pageSize = paginationProperties.resolve(reviewLimit);
+        return responseCache.forMovie(id, etag + "?reviewLimit=" + pageSize, request, () -> {
+            try {
+                return movieDetailService.getMovieDetail(id, version.version(), pageSize)
+                        .<ResponseEntity<?>>map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.notFound().build());
+            } catch (QueryTimeoutException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(Map.of("message", e.getMessage()));
+            }
+        });
+    }
+
+    // Star distribution from the movie's stored histogram; no review rows are read
+    @GetMapping("/{id}/ratings")
+    public ResponseEntity<RatingDistribution> getRatingDistribution(@PathVariable Long id) {
         return movieService.getMovieById(id)
-                .map(ResponseEntity::ok)
+                .map(movie -> ResponseEntity.ok(RatingDistribution.from(movie)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public ResponseEntity<Movie> createMovie(@Valid @RequestBody Movie movie) {
+    public ResponseEntity<MovieCard> createMovie(@Valid @RequestBody Movie movie) {
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(movieService.saveMovie(movie));
+                .body(MovieCard.from(movieService.saveMovie(movie)));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Movie> updateMovie(@PathVariable Long id,
-                                             @Valid @RequestBody Movie movie) {
-        return movieService.getMovieById(id)
-                .map(existingMovie -> {
-                    movie.setId(id);
-                    return ResponseEntity.ok(movieService.saveMovie(movie));
-                })
+    public ResponseEntity<?> updateMovie(@PathVariable Long id,
+                                         @Valid @RequestBody Movie movie) {
+        // Only the descriptive fields are editable: rating aggregates are owned by review writes, and
+        // merging the request body would orphan-remove every review it does not list. Written in place, so
+        // reviews committing meanwhile do not make the edit conflict
+        return movieService.updateMovieDetails(id, movie.getTitle(), movie.getImageUrl(), movie.getDescription())
+                .map(updated -> ResponseEntity.ok(MovieCard.from(updated)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -1,63 +1,204 @@
 package com.flickcritic.controller;
 
+import com.flickcritic.conditional.ConditionalGet;
+import com.flickcritic.conditional.MovieVersions;
+import com.flickcritic.dto.IngestReceipt;
+import com.flickcritic.dto.MovieVersion;
+import com.flickcritic.dto.ReviewView;
+import com.flickcritic.ingest.IngestProperties;
+import com.flickcritic.ingest.PendingReview;
+import com.flickcritic.ingest.ReviewIngestQueue;
 import com.flickcritic.model.Review;
+import com.flickcritic.pagination.CursorPage;
+import com.flickcritic.pagination.PageCursor;
+import com.flickcritic.pagination.PaginationProperties;
+import com.flickcritic.responsecache.ResponseCache;
 import com.flickcritic.service.ReviewService;
+import com.flickcritic.stream.ReviewStreamHub;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/reviews")
 public class ReviewController {
 
+    private static final String REVIEW_UNIQUE_CONSTRAINT = "uk_reviews_movie_user";
+    // fk_reviews_movie and fk_reviews_user
+    private static final String REVIEW_FOREIGN_KEYS = "fk_reviews_";
+
     private final ReviewService reviewService;
+    private final PaginationProperties paginationProperties;
+    private final ReviewIngestQueue reviewIngestQueue;
+    private final IngestProperties ingestProperties;
+    private final MovieVersions movieVersions;
+    private final ResponseCache responseCache;
+    private final ReviewStreamHub reviewStreamHub;
 
     @Autowired
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, PaginationProperties paginationProperties,
+                            ReviewIngestQueue reviewIngestQueue, IngestProperties ingestProperties,
+                            MovieVersions movieVersions, ResponseCache responseCache,
+                            ReviewStreamHub reviewStreamHub) {
         this.reviewService = reviewService;
+        this.paginationProperties = paginationProperties;
+        this.reviewIngestQueue = reviewIngestQueue;
+        this.ingestProperties = ingestProperties;
+        this.movieVersions = movieVersions;
+        this.responseCache = responseCache;
+        this.reviewStreamHub = reviewStreamHub;
     }
 
     @GetMapping
-    public ResponseEntity<List<Review>> getAllReviews() {
-        return ResponseEntity.ok(reviewService.getAllReviews());
+    public ResponseEntity<?> getAllReviews(@RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit,
+                                           @RequestParam(defaultValue = "false") boolean unpaged,
+                                           ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, null, movieVersions.getCatalogLastModified())) {
+            return ConditionalGet.notModifiedResponse();
+        }
+        if (unpaged) {
+            return responseCache.forCatalog("reviews?unpaged", request,
+                    () -> ResponseEntity.ok(reviewService.getAllReviews()));
+        }
+        int pageSize = paginationProperties.resolve(limit);
+        return responseCache.forCatalog("reviews?cursor=" + cursor + "&limit=" + pageSize, request,
+                () -> page(cursor, after -> reviewService.getReviewsPage(after, pageSize)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Review> getReviewById(@PathVariable Long id) {
+    public ResponseEntity<ReviewView> getReviewById(@PathVariable Long id) {
         return reviewService.getReviewById(id)
-                .map(ResponseEntity::ok)
+                .map(review -> ResponseEntity.ok(ReviewView.from(review)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Every review write bumps the movie's version, so it also tags the movie's review list
     @GetMapping("/movie/{movieId}")
-    public ResponseEntity<List<Review>> getReviewsByMovieId(@PathVariable Long movieId) {
-        return ResponseEntity.ok(reviewService.getReviewsByMovieId(movieId));
+    public ResponseEntity<?> getReviewsByMovieId(@PathVariable Long movieId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(defaultValue = "false") boolean unpaged,
+                                                 ServletWebRequest request) {
+        MovieVersion version = movieVersions.get(movieId);
+        if (version != null && ConditionalGet.notModified(request,
+                MovieVersions.reviewsETag(movieId, version), version.lastModified())) {
+            return ConditionalGet.notModifiedResponse();
+        }
+        if (version == null) {
+            // Unknown or deleted movie, so there are no reviews to load or cache
+            return ResponseEntity.ok(List.of());
+        }
+        String key = MovieVersions.reviewsETag(movieId, version);
+        if (unpaged) {
+            return responseCache.forMovie(movieId, key + "?unpaged", request,
+                    () -> ResponseEntity.ok(reviewService.getReviewsByMovieId(movieId)));
+        }
+        int pageSize = paginationProperties.resolve(limit);
+        return responseCache.forMovie(movieId, key + "?cursor=" + cursor + "&limit=" + pageSize, request,
+                () -> page(cursor, after -> reviewService.getReviewsByMovieIdPage(movieId, after, pageSize)));
+    }
+
+    // Server-sent "review" and "review-deleted" events as the movie's reviews change, instead of polling the list.
+    // The hub takes over the response with non-blocking writes, so an open stream returns null here
+    @GetMapping(value = "/movie/{movieId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Void> streamReviewsByMovieId(@PathVariable Long movieId, HttpServletRequest request,
+                                                       HttpServletResponse response) throws IOException {
+        if (movieVersions.get(movieId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!reviewStreamHub.subscribe(movieId, request, response)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+        return null;
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Review>> getReviewsByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(reviewService.getReviewsByUserId(userId));
+    public ResponseEntity<?> getReviewsByUserId(@PathVariable Long userId,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit,
+                                                @RequestParam(defaultValue = "false") boolean unpaged,
+                                                ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, null, movieVersions.getCatalogLastModified())) {
+            return ConditionalGet.notModifiedResponse();
+        }
+        if (unpaged) {
+            return responseCache.forCatalog("reviews/user/" + userId + "?unpaged", request,
+                    () -> ResponseEntity.ok(reviewService.getReviewsByUserId(userId)));
+        }
+        int pageSize = paginationProperties.resolve(limit);
+        return responseCache.forCatalog("reviews/user/" + userId + "?cursor=" + cursor + "&limit=" + pageSize,
+                request, () -> page(cursor, after -> reviewService.getReviewsByUserIdPage(userId, after, pageSize)));
     }
 
+    // With write-behind ingestion enabled the review is queued: 202 with a ticket, or with ack=durable 201 once its
+    // batch has committed
     @PostMapping
-    public ResponseEntity<Review> createReview(@Valid @RequestBody Review review) {
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(reviewService.saveReview(review));
+    public ResponseEntity<?> createReview(@Valid @RequestBody Review review,
+                                          @RequestParam(defaultValue = "queued") String ack) {
+        ReviewView submitted = ReviewView.from(review);
+        if (submitted.movieId() == null || submitted.userId() == null) {
+            return unknownReferences();
+        }
+        if (reviewIngestQueue.isEnabled() && review.getId() == null) {
+            // Written later by the queue, so what the constraints would reject is checked before queueing
+            if (!reviewService.referencesExist(submitted.movieId(), submitted.userId())) {
+                return unknownReferences();
+            }
+            if (reviewService.hasReviewed(submitted.movieId(), submitted.userId())) {
+                return alreadyReviewed();
+            }
+            return ingest(submitted, "durable".equalsIgnoreCase(ack));
+        }
+        // No lookups first: the constraints reject an unknown movie or user and a second review in the insert itself
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ReviewView.from(reviewService.saveReview(review)));
+        } catch (DataIntegrityViolationException e) {
+            return rejected(e);
+        }
+    }
+
+    @GetMapping("/ingest/{ticket}")
+    public ResponseEntity<IngestReceipt> getIngestTicket(@PathVariable String ticket) {
+        PendingReview pending = reviewIngestQueue.getTicket(ticket);
+        return pending != null ? ResponseEntity.ok(pending.toReceipt()) : ResponseEntity.notFound().build();
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Review> updateReview(@PathVariable Long id,
-                                              @Valid @RequestBody Review review) {
-        return reviewService.getReviewById(id)
-                .map(existingReview -> {
-                    review.setId(id);
-                    return ResponseEntity.ok(reviewService.saveReview(review));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> updateReview(@PathVariable Long id, @Valid @RequestBody Review review) {
+        if (reviewService.getReviewById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ReviewView submitted = ReviewView.from(review);
+        if (submitted.movieId() == null || submitted.userId() == null) {
+            return unknownReferences();
+        }
+        review.setId(id);
+        try {
+            return ResponseEntity.ok(ReviewView.from(reviewService.saveReview(review)));
+        } catch (DataIntegrityViolationException e) {
+            return rejected(e);
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -69,4 +210,68 @@ public class ReviewController {
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
-} 
\ No newline at end of file
+
+    private ResponseEntity<?> ingest(ReviewView review, boolean durable) {
+        PendingReview pending = reviewIngestQueue.offer(review);
+        if (pending == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("message", "Review queue is full, retry later"));
+        }
+        if (durable) {
+            try {
+                ReviewView saved = pending.getPersisted()
+                        .get(ingestProperties.getDurableAckTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+            } catch (ExecutionException e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(pending.toReceipt());
+            } catch (TimeoutException e) {
+                // Still queued; fall through to the ticket
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/reviews/ingest/" + pending.getTicket()))
+                .body(pending.toReceipt());
+    }
+
+    // A second review of the movie by the user is a conflict and an unknown movie or user a bad request; any other
+    // violation is a server error
+    private static ResponseEntity<?> rejected(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String name = cause instanceof ConstraintViolationException violation
+                    ? violation.getConstraintName() : cause.getMessage();
+            if (name == null) {
+                continue;
+            }
+            name = name.toLowerCase(Locale.ROOT);
+            if (name.contains(REVIEW_UNIQUE_CONSTRAINT)) {
+                return alreadyReviewed();
+            }
+            if (name.contains(REVIEW_FOREIGN_KEYS)) {
+                return unknownReferences();
+            }
+        }
+        throw e;
+    }
+
+    private static ResponseEntity<?> unknownReferences() {
+        return ResponseEntity.badRequest().body(Map.of("message", "Unknown movie or user"));
+    }
+
+    private static ResponseEntity<?> alreadyReviewed() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", "This user has already reviewed this movie"));
+    }
+
+    private ResponseEntity<?> page(String cursor, Function<PageCursor, CursorPage<ReviewView>> fetch) {
+        PageCursor after;
+        try {
+            after = PageCursor.decodeDated(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        return fetch.apply(after).toResponseEntity();
+    }
+}
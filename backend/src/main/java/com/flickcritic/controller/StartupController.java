@@ -0,0 +1,35 @@
+package com.flickcritic.controller;
+
+import com.flickcritic.dto.StartupReport;
+import com.flickcritic.startup.StartupPhases;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/startup")
+public class StartupController {
+
+    private final StartupPhases startupPhases;
+
+    @Autowired
+    public StartupController(StartupPhases startupPhases) {
+        this.startupPhases = startupPhases;
+    }
+
+    // Breakdown of this instance's startup; only recorded when started with -Dflickcritic.startup.steps
+    @GetMapping
+    public ResponseEntity<?> getStartupReport() {
+        StartupReport report = startupPhases.report();
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Startup steps were not recorded; start with -Dflickcritic.startup.steps=20000"));
+        }
+        return ResponseEntity.ok(report);
+    }
+}
@@ -1,7 +1,13 @@
 package com.flickcritic.controller;
 
+import com.flickcritic.auth.Session;
+import com.flickcritic.auth.SessionInterceptor;
+import com.flickcritic.auth.SessionStore;
+import com.flickcritic.dto.LoginSession;
+import com.flickcritic.dto.UserSummary;
 import com.flickcritic.model.User;
 import com.flickcritic.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -10,53 +16,55 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/users")
 public class UserController {
 
     private final UserService userService;
+    private final SessionStore sessionStore;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, SessionStore sessionStore) {
         this.userService = userService;
+        this.sessionStore = sessionStore;
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<UserSummary>> getAllUsers() {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserSummary> getUserById(@PathVariable Long id) {
         return userService.getUserById(id)
-                .map(ResponseEntity::ok)
+                .map(user -> ResponseEntity.ok(UserSummary.from(user)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public ResponseEntity<User> createUser(@Valid @RequestBody User user) {
+    public ResponseEntity<UserSummary> createUser(@Valid @RequestBody User user) {
         if (userService.existsByEmail(user.getEmail())) {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(userService.saveUser(user));
+                .body(UserSummary.from(userService.saveUser(user)));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Long id,
+    public ResponseEntity<UserSummary> updateUser(@PathVariable Long id,
                                           @Valid @RequestBody User user) {
         return userService.getUserById(id)
                 .map(existingUser -> {
                     // Check if email is being changed and if it already exists
                     if (!existingUser.getEmail().equals(user.getEmail()) && 
                         userService.existsByEmail(user.getEmail())) {
-                        return ResponseEntity.status(HttpStatus.CONFLICT).<User>build();
+                        return ResponseEntity.status(HttpStatus.CONFLICT).<UserSummary>build();
                     }
                     
-                    user.setId(id);
-                    return ResponseEntity.ok(userService.saveUser(user));
+                    return userService.updateUser(id, user)
+                            .map(updated -> ResponseEntity.ok(UserSummary.from(updated)))
+                            .orElse(ResponseEntity.notFound().build());
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -78,14 +86,30 @@ public class UserController {
             return ResponseEntity.badRequest().body(Map.of("message", "Email and password are required"));
         }
         
-        Optional<User> userOptional = userService.getUserByEmail(email)
-                .filter(user -> user.getPassword().equals(password));
-                
-        if (userOptional.isPresent()) {
-            return ResponseEntity.ok(userOptional.get());
-        } else {
+        return userService.authenticate(email, password)
+                .<ResponseEntity<?>>map(user -> ResponseEntity.ok(
+                        LoginSession.from(sessionStore.create(UserSummary.from(user)))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("message", "Invalid credentials")));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logoutUser(HttpServletRequest request) {
+        String token = SessionInterceptor.bearerToken(request);
+        if (token != null) {
+            sessionStore.invalidate(token);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // The signed-in user, straight from the session store
+    @GetMapping("/me")
+    public ResponseEntity<?> getCurrentUser(
+            @RequestAttribute(name = SessionInterceptor.SESSION_ATTRIBUTE, required = false) Session session) {
+        if (session == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "Invalid credentials"));
+                    .body(Map.of("message", "Not signed in"));
         }
+        return ResponseEntity.ok(session.getUser());
     }
-} 
\ No newline at end of file
+}
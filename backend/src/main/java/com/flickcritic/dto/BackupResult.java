@@ -0,0 +1,7 @@
+package com.flickcritic.dto;
+
+import java.time.Instant;
+
+// A completed online backup: the zip written under flickcritic.backup.directory
+public record BackupResult(String file, long bytes, long durationMillis, Instant startedAt) {
+}
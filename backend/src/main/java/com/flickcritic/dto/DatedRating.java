@@ -0,0 +1,7 @@
+package com.flickcritic.dto;
+
+import java.time.LocalDate;
+
+// One review's movie, rating and date, enough to take it back out of the trending window
+public record DatedRating(Long movieId, Integer rating, LocalDate date) {
+}
@@ -0,0 +1,7 @@
+package com.flickcritic.dto;
+
+import java.util.List;
+
+// Outcome of a bulk import: rows committed, rows rejected and a sample of the reasons
+public record ImportResult(int imported, int rejected, List<String> errors) {
+}
@@ -0,0 +1,5 @@
+package com.flickcritic.dto;
+
+// Status of a review submitted through write-behind ingestion: QUEUED, PERSISTED (with the review) or FAILED
+public record IngestReceipt(String ticket, String status, ReviewView review, String error) {
+}
@@ -0,0 +1,13 @@
+package com.flickcritic.dto;
+
+import com.flickcritic.auth.Session;
+
+import java.time.Instant;
+
+// Login response: the bearer token for later requests, when it expires, and who it signs in
+public record LoginSession(String token, Instant expiresAt, UserSummary user) {
+
+    public static LoginSession from(Session session) {
+        return new LoginSession(session.getToken(), session.getExpiresAt(), session.getUser());
+    }
+}
@@ -0,0 +1,12 @@
+package com.flickcritic.dto;
+
+import com.flickcritic.model.Movie;
+
+// Flat read model of a movie, matching the frontend's Movie type
+public record MovieCard(Long id, String title, String imageUrl, Double averageRating, String description) {
+
+    public static MovieCard from(Movie movie) {
+        return new MovieCard(movie.getId(), movie.getTitle(), movie.getImageUrl(),
+                movie.getAverageRating(), movie.getDescription());
+    }
+}
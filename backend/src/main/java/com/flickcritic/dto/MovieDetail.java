@@ -0,0 +1,17 @@
+package com.flickcritic.dto;
+
+import com.flickcritic.model.Movie;
+import com.flickcritic.pagination.CursorPage;
+
+import java.util.List;
+
+// Everything the movie detail page shows, in one response: the movie, its star distribution and review count,
+// and the first page of its reviews. nextReviewsCursor continues the list at GET /reviews/movie/{id}?cursor=
+public record MovieDetail(MovieCard movie, RatingDistribution ratings, List<ReviewView> reviews,
+                          String nextReviewsCursor) {
+
+    public static MovieDetail from(Movie movie, CursorPage<ReviewView> reviews) {
+        return new MovieDetail(MovieCard.from(movie), RatingDistribution.from(movie), reviews.items(),
+                reviews.nextCursor());
+    }
+}
@@ -0,0 +1,5 @@
+package com.flickcritic.dto;
+
+// A movie's display fields and rating aggregates, used to (re)build the top-rated ranking
+public record MovieRating(Long id, String title, String imageUrl, Long ratingSum, Integer reviewCount) {
+}
@@ -0,0 +1,5 @@
+package com.flickcritic.dto;
+
+// The searchable text of a movie, used to (re)build the in-memory search index
+public record MovieText(Long id, String title, String description) {
+}
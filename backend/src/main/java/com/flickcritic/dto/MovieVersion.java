@@ -0,0 +1,7 @@
+package com.flickcritic.dto;
+
+import java.time.Instant;
+
+// A movie's version counter and last change, the validators for conditional GETs of the movie and its reviews
+public record MovieVersion(Long version, Instant lastModified) {
+}
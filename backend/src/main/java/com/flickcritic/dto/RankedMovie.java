@@ -0,0 +1,6 @@
+package com.flickcritic.dto;
+
+// A top-rated entry; weightedRating is the Bayesian average the ranking is ordered by
+public record RankedMovie(Long id, String title, String imageUrl, Double averageRating, Integer reviewCount,
+                          Double weightedRating) {
+}
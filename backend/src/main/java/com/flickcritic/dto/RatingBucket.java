@@ -0,0 +1,5 @@
+package com.flickcritic.dto;
+
+// Number of reviews of one movie with a given rating, counted from the reviews table
+public record RatingBucket(Long movieId, Integer rating, Long reviewCount) {
+}
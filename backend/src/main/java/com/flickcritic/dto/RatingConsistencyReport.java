@@ -0,0 +1,8 @@
+package com.flickcritic.dto;
+
+import java.util.List;
+
+// Outcome of comparing stored rating histograms and aggregates against the reviews table
+public record RatingConsistencyReport(int moviesChecked, int moviesDrifted, boolean repaired,
+                                      List<Long> driftedMovieIds) {
+}
@@ -0,0 +1,16 @@
+package com.flickcritic.dto;
+
+import com.flickcritic.model.Movie;
+import com.flickcritic.model.RatingHistogram;
+
+// 1- to 5-star breakdown of a movie's reviews, for the detail page
+public record RatingDistribution(Long movieId, Integer oneStar, Integer twoStars, Integer threeStars,
+                                 Integer fourStars, Integer fiveStars, Integer reviewCount, Double averageRating) {
+
+    public static RatingDistribution from(Movie movie) {
+        RatingHistogram histogram = movie.getRatingHistogram();
+        return new RatingDistribution(movie.getId(), histogram.getCount1(), histogram.getCount2(),
+                histogram.getCount3(), histogram.getCount4(), histogram.getCount5(),
+                movie.getReviewCount(), movie.getAverageRating());
+    }
+}
@@ -0,0 +1,17 @@
+package com.flickcritic.dto;
+
+import com.flickcritic.model.Review;
+
+import java.time.LocalDate;
+
+// Flat read model of a review, matching the frontend's Review type
+public record ReviewView(Long id, Long movieId, Long userId, String username, Integer rating,
+                         String comment, LocalDate date) {
+
+    public static ReviewView from(Review review) {
+        return new ReviewView(review.getId(),
+                review.getMovie() != null ? review.getMovie().getId() : null,
+                review.getUser() != null ? review.getUser().getId() : null,
+                review.getUsername(), review.getRating(), review.getComment(), review.getDate());
+    }
+}
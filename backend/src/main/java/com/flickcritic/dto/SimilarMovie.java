@@ -0,0 +1,5 @@
+package com.flickcritic.dto;
+
+// A movie similar to another; similarity is the damped adjusted cosine of their ratings, in (0, 1]
+public record SimilarMovie(Long id, String title, String imageUrl, Double averageRating, Double similarity) {
+}
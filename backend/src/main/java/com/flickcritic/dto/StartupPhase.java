@@ -0,0 +1,5 @@
+package com.flickcritic.dto;
+
+// One named slice of startup time
+public record StartupPhase(String name, long millis) {
+}
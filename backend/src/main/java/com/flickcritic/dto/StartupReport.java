@@ -0,0 +1,9 @@
+package com.flickcritic.dto;
+
+import java.util.List;
+
+// Where startup time went: top-level phases from JVM launch to ready, the context refresh split by step, and the
+// beans with the most time of their own (excluding the beans they pulled in)
+public record StartupReport(long totalMillis, List<StartupPhase> phases, List<StartupPhase> refresh,
+                            List<StartupPhase> slowestBeans) {
+}
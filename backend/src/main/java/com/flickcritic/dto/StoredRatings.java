@@ -0,0 +1,12 @@
+package com.flickcritic.dto;
+
+import com.flickcritic.model.RatingHistogram;
+
+// The rating aggregates persisted on a movie row, as read by the consistency check
+public record StoredRatings(Long movieId, Long ratingSum, Integer reviewCount, RatingHistogram histogram) {
+
+    public StoredRatings(Long movieId, Long ratingSum, Integer reviewCount,
+                         Integer count1, Integer count2, Integer count3, Integer count4, Integer count5) {
+        this(movieId, ratingSum, reviewCount, new RatingHistogram(count1, count2, count3, count4, count5));
+    }
+}
@@ -0,0 +1,6 @@
+package com.flickcritic.dto;
+
+// A trending entry: reviews and average rating over the trending window, and the time-decayed score it is ordered by
+public record TrendingMovie(Long id, String title, String imageUrl, Integer recentReviews, Double recentAverageRating,
+                            Double trendingScore) {
+}
@@ -0,0 +1,11 @@
+package com.flickcritic.dto;
+
+import com.flickcritic.model.User;
+
+// Flat read model of a user without credentials or reviews, matching the frontend's User type
+public record UserSummary(Long id, String name, String email, String role) {
+
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getName(), user.getEmail(), user.getRole());
+    }
+}
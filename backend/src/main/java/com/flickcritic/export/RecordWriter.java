@@ -0,0 +1,71 @@
+package com.flickcritic.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Writes flat records one at a time, as NDJSON lines or as CSV rows under a header, through a buffered writer
+public class RecordWriter {
+
+    private final ExportFormat format;
+    private final ObjectMapper objectMapper;
+    private final Writer out;
+
+    public RecordWriter(ExportFormat format, ObjectMapper objectMapper, OutputStream stream, String... columns)
+            throws IOException {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == ExportFormat.CSV) {
+            writeCsvRow((Object[]) columns);
+        }
+    }
+
+    // NDJSON serializes the record itself; CSV writes the values in column order
+    public void write(Object record, Object... values) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            out.write(objectMapper.writeValueAsString(record));
+            out.write('\n');
+        } else {
+            writeCsvRow(values);
+        }
+    }
+
+    // Push what has been buffered so far to the client
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeCsvRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                writeCsvField(values[i].toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break, doubling embedded quotes
+    private void writeCsvField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,62 @@
+package com.flickcritic.fanout;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// The concurrent reads of one request, sharing a single deadline. Reads still running when it is closed are
+// cancelled, so an early failure or timeout does not leave work behind.
+public final class FanOut implements AutoCloseable {
+
+    private final FanOutExecutor executor;
+    private final Duration timeout;
+    private final long deadline;
+    private final List<Future<?>> forked = new ArrayList<>();
+
+    FanOut(FanOutExecutor executor, Duration timeout) {
+        this.executor = executor;
+        this.timeout = timeout;
+        this.deadline = System.nanoTime() + timeout.toNanos();
+    }
+
+    public <T> Future<T> fork(Callable<T> read) {
+        Future<T> future = executor.submit(read);
+        forked.add(future);
+        return future;
+    }
+
+    // QueryTimeoutException once the request's budget is spent; a failed read rethrows its exception
+    public <T> T join(Future<T> read) {
+        try {
+            return read.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            executor.timedOut();
+            throw new QueryTimeoutException("Reads did not complete within " + timeout.toMillis() + " ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a read", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Future<?> future : forked) {
+            future.cancel(true);
+        }
+    }
+}
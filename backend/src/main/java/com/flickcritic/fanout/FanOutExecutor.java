@@ -0,0 +1,58 @@
+package com.flickcritic.fanout;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Bounded pool for running the independent reads of one request concurrently. Deliberately not an Executor bean:
+// that would replace Boot's application task executor used by async MVC. When the queue is full the request
+// thread runs the read itself, which slows that request down instead of failing it.
+//
+// Pool activity is exported as the executor.* metrics tagged name=fan-out.
+@Component
+public class FanOutExecutor implements DisposableBean {
+
+    private final FanOutProperties properties;
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final Counter timeouts;
+
+    @Autowired
+    public FanOutExecutor(FanOutProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("fan-out-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "fan-out", List.of()).bindTo(meterRegistry);
+        this.timeouts = meterRegistry.counter("flickcritic.fan-out.timeouts");
+    }
+
+    // The timeout starts now and covers every read forked from the returned fan-out
+    public FanOut begin() {
+        return new FanOut(this, properties.getTimeout());
+    }
+
+    <T> Future<T> submit(Callable<T> read) {
+        return executor.submit(read);
+    }
+
+    void timedOut() {
+        timeouts.increment();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
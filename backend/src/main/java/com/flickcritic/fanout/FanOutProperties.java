@@ -0,0 +1,42 @@
+package com.flickcritic.fanout;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "flickcritic.fan-out")
+public class FanOutProperties {
+
+    // Every read holds a database connection while it runs, so keep this well under the pool size
+    private int threads = 8;
+    // Once full, the request thread runs the read itself
+    private int queueCapacity = 256;
+    // Budget for all the reads of one request together
+    private Duration timeout = Duration.ofSeconds(2);
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
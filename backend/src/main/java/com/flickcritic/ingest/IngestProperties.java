@@ -0,0 +1,70 @@
+package com.flickcritic.ingest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "flickcritic.ingest")
+public class IngestProperties {
+
+    // Write-behind review ingestion is opt-in; when off, POST /reviews commits synchronously
+    private boolean enabled = false;
+    private int queueCapacity = 10_000;
+    // A batch is written once it reaches batchSize or flushInterval after its first review, whichever comes first
+    private int batchSize = 500;
+    private Duration flushInterval = Duration.ofMillis(100);
+    // How long an ack=durable request waits for its batch to commit before falling back to a ticket
+    private Duration durableAckTimeout = Duration.ofSeconds(5);
+    // Completed tickets kept for status lookups, on top of the ones still queued
+    private int retainedTickets = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Duration getDurableAckTimeout() {
+        return durableAckTimeout;
+    }
+
+    public void setDurableAckTimeout(Duration durableAckTimeout) {
+        this.durableAckTimeout = durableAckTimeout;
+    }
+
+    public int getRetainedTickets() {
+        return retainedTickets;
+    }
+
+    public void setRetainedTickets(int retainedTickets) {
+        this.retainedTickets = retainedTickets;
+    }
+}
@@ -0,0 +1,42 @@
+package com.flickcritic.ingest;
+
+import com.flickcritic.dto.IngestReceipt;
+import com.flickcritic.dto.ReviewView;
+
+import java.util.concurrent.CompletableFuture;
+
+// A validated review waiting in the ingestion queue; the future completes once its batch commits or fails
+public class PendingReview {
+
+    private final String ticket;
+    private final ReviewView review;
+    private final CompletableFuture<ReviewView> persisted = new CompletableFuture<>();
+
+    PendingReview(String ticket, ReviewView review) {
+        this.ticket = ticket;
+        this.review = review;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public ReviewView getReview() {
+        return review;
+    }
+
+    public CompletableFuture<ReviewView> getPersisted() {
+        return persisted;
+    }
+
+    public IngestReceipt toReceipt() {
+        if (!persisted.isDone()) {
+            return new IngestReceipt(ticket, "QUEUED", null, null);
+        }
+        if (persisted.isCompletedExceptionally()) {
+            String error = persisted.handle((saved, failure) -> failure.getMessage()).join();
+            return new IngestReceipt(ticket, "FAILED", null, error);
+        }
+        return new IngestReceipt(ticket, "PERSISTED", persisted.join(), null);
+    }
+}
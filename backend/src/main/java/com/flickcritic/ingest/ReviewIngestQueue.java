@@ -0,0 +1,209 @@
+package com.flickcritic.ingest;
+
+import com.flickcritic.dto.ReviewView;
+import com.flickcritic.model.Review;
+import com.flickcritic.service.ReviewService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind ingestion of new reviews. Submissions are validated by the caller, offered to a bounded queue and
+// written by a single writer thread in batches: one insert batch plus one aggregate update per movie per batch.
+//
+// Acknowledgement contract: a QUEUED ticket lives only in memory, so a crash loses it; graceful shutdown drains
+// the queue first. A review is durable once its ticket reports PERSISTED, which is also when ack=durable requests
+// return.
+@Component
+public class ReviewIngestQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewIngestQueue.class);
+
+    private static final long STOP_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final ReviewService reviewService;
+    private final IngestProperties properties;
+    private final BlockingQueue<PendingReview> queue;
+    private final Map<String, PendingReview> tickets;
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter persisted;
+    private final Counter failed;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public ReviewIngestQueue(ReviewService reviewService, IngestProperties properties, MeterRegistry meterRegistry) {
+        this.reviewService = reviewService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        int retained = properties.getQueueCapacity() + properties.getRetainedTickets();
+        this.tickets = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PendingReview> eldest) {
+                return size() > retained;
+            }
+        };
+
+        Gauge.builder("flickcritic.ingest.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.accepted = meterRegistry.counter("flickcritic.ingest.reviews", "outcome", "accepted");
+        this.rejected = meterRegistry.counter("flickcritic.ingest.reviews", "outcome", "rejected");
+        this.persisted = meterRegistry.counter("flickcritic.ingest.reviews", "outcome", "persisted");
+        this.failed = meterRegistry.counter("flickcritic.ingest.reviews", "outcome", "failed");
+        this.flushTimer = meterRegistry.timer("flickcritic.ingest.flush");
+        this.batchSizes = meterRegistry.summary("flickcritic.ingest.batch.size");
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    // Null when the queue is full (or shutting down) and the caller should back off
+    public PendingReview offer(ReviewView review) {
+        PendingReview pending = new PendingReview(UUID.randomUUID().toString(), review);
+        if (!accepting || !queue.offer(pending)) {
+            rejected.increment();
+            return null;
+        }
+        synchronized (tickets) {
+            tickets.put(pending.getTicket(), pending);
+        }
+        accepted.increment();
+        return pending;
+    }
+
+    public PendingReview getTicket(String ticket) {
+        synchronized (tickets) {
+            return tickets.get(ticket);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        accepting = true;
+        writer = new Thread(this::drain, "review-ingest-writer");
+        writer.start();
+        log.info("Write-behind review ingestion enabled (queue {}, batch {}, flush every {} ms)",
+                properties.getQueueCapacity(), properties.getBatchSize(), properties.getFlushInterval().toMillis());
+    }
+
+    // Stop taking reviews, then let the writer flush everything already queued
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        log.info("Draining queued reviews before shutdown");
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        log.info("Review ingestion stopped ({} persisted, {} failed)", (long) persisted.count(), (long) failed.count());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    // Stop after the web server has stopped taking requests, so nothing is accepted once draining starts
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        long flushNanos = properties.getFlushInterval().toNanos();
+        List<PendingReview> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingReview first = queue.poll(Math.min(flushNanos, STOP_CHECK_NANOS), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (true) {
+                    queue.drainTo(batch, properties.getBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == properties.getBatchSize() || remaining <= 0 || !running) {
+                        break;
+                    }
+                    // Wait in short slices so stop() never sits out a long flush interval
+                    PendingReview next = queue.poll(Math.min(remaining, STOP_CHECK_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                flushTimer.record(() -> flush(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Review ingestion batch failed unexpectedly", e);
+                batch.forEach(pending -> fail(pending, e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingReview> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<Review> saved = reviewService.createReviews(batch.stream().map(PendingReview::getReview).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            // One bad row (e.g. a movie deleted after validation) must not sink the rest: retry them one by one
+            log.warn("Batch of {} reviews rolled back ({}); retrying individually", batch.size(), e.getMessage());
+            for (PendingReview pending : batch) {
+                try {
+                    complete(pending, reviewService.createReviews(List.of(pending.getReview())).get(0));
+                } catch (RuntimeException single) {
+                    fail(pending, single);
+                }
+            }
+        }
+    }
+
+    private void complete(PendingReview pending, Review saved) {
+        persisted.increment();
+        pending.getPersisted().complete(ReviewView.from(saved));
+    }
+
+    private void fail(PendingReview pending, RuntimeException cause) {
+        if (pending.getPersisted().completeExceptionally(cause)) {
+            failed.increment();
+        }
+    }
+}
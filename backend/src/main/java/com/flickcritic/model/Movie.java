@@ -1,18 +1,27 @@
 package com.flickcritic.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "movies")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Movie {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movies_seq")
+    @SequenceGenerator(name = "movies_seq", sequenceName = "movies_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Title is required")
@@ -25,9 +34,39 @@ public class Movie {
     @Column(length = 2000)
     private String description;
 
+    // Running rating aggregates, kept in step with review writes. Set on insert only: afterwards they are changed
+    // in place by MovieRepository.incrementRatings/resetRatings, so an entity update can never write back stale values.
+    // The average is derived from the sum and count on insert (see deriveAverageRating), never taken from a client
     @NotNull(message = "Average rating is required")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(updatable = false)
     private Double averageRating = 0.0;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false, updatable = false)
+    private Long ratingSum = 0L;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false, updatable = false)
+    private Integer reviewCount = 0;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Embedded
+    private RatingHistogram ratingHistogram = new RatingHistogram();
+
+    // Bumped by every change to the movie or its reviews (MovieRepository.incrementRatings/resetRatings bump it in
+    // SQL); the ETag of both resources
+    @Version
+    @JsonIgnore
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    @UpdateTimestamp
+    @JsonIgnore
+    @ColumnDefault("current_timestamp")
+    private Instant lastModified;
+
     @OneToMany(mappedBy = "movie", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Review> reviews = new ArrayList<>();
 
@@ -43,6 +82,12 @@ public class Movie {
         this.reviews = reviews != null ? reviews : new ArrayList<>();
     }
 
+    @PrePersist
+    void deriveAverageRating() {
+        averageRating = reviewCount != null && reviewCount > 0 && ratingSum != null
+                ? (double) ratingSum / reviewCount : 0.0;
+    }
+
     public Long getId() {
         return id;
     }
@@ -83,6 +128,38 @@ public class Movie {
         this.averageRating = averageRating;
     }
 
+    public Long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(Long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public Integer getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(Integer reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public RatingHistogram getRatingHistogram() {
+        return ratingHistogram;
+    }
+
+    public void setRatingHistogram(RatingHistogram ratingHistogram) {
+        this.ratingHistogram = ratingHistogram;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
     public List<Review> getReviews() {
         return reviews;
     }
@@ -90,22 +167,4 @@ public class Movie {
     public void setReviews(List<Review> reviews) {
         this.reviews = reviews;
     }
-
-    // Helper method to calculate average rating
-    public void calculateAverageRating() {
-        if (reviews == null || reviews.isEmpty()) {
-            this.averageRating = 0.0;
-            return;
-        }
-        
-        double sum = 0.0;
-        int count = 0;
-        for (Review review : reviews) {
-            if (review.getRating() != null) {
-                sum += review.getRating();
-                count++;
-            }
-        }
-        this.averageRating = count > 0 ? sum / count : 0.0;
-    }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.flickcritic.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import org.hibernate.annotations.ColumnDefault;
+
+// Number of 1- to 5-star reviews of a movie, stored as five columns on the movies row. Also used for batches of
+// per-rating changes, where counts may be negative
+@Embeddable
+public class RatingHistogram {
+
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 5;
+
+    @Column(name = "rating_count_1", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer count1 = 0;
+
+    @Column(name = "rating_count_2", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer count2 = 0;
+
+    @Column(name = "rating_count_3", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer count3 = 0;
+
+    @Column(name = "rating_count_4", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer count4 = 0;
+
+    @Column(name = "rating_count_5", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer count5 = 0;
+
+    public RatingHistogram() {
+    }
+
+    public RatingHistogram(int count1, int count2, int count3, int count4, int count5) {
+        this.count1 = count1;
+        this.count2 = count2;
+        this.count3 = count3;
+        this.count4 = count4;
+        this.count5 = count5;
+    }
+
+    // A histogram with a single count, e.g. of(5, -1) for removing one 5-star review
+    public static RatingHistogram of(int rating, int count) {
+        RatingHistogram histogram = new RatingHistogram();
+        histogram.add(rating, count);
+        return histogram;
+    }
+
+    public int getCount(int rating) {
+        return switch (rating) {
+            case 1 -> count1;
+            case 2 -> count2;
+            case 3 -> count3;
+            case 4 -> count4;
+            case 5 -> count5;
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5: " + rating);
+        };
+    }
+
+    public void add(int rating, int delta) {
+        switch (rating) {
+            case 1 -> count1 += delta;
+            case 2 -> count2 += delta;
+            case 3 -> count3 += delta;
+            case 4 -> count4 += delta;
+            case 5 -> count5 += delta;
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5: " + rating);
+        }
+    }
+
+    public int total() {
+        return count1 + count2 + count3 + count4 + count5;
+    }
+
+    public long ratingSum() {
+        return count1 + 2L * count2 + 3L * count3 + 4L * count4 + 5L * count5;
+    }
+
+    public boolean sameCounts(RatingHistogram other) {
+        for (int rating = MIN_RATING; rating <= MAX_RATING; rating++) {
+            if (getCount(rating) != other.getCount(rating)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Integer getCount1() {
+        return count1;
+    }
+
+    public Integer getCount2() {
+        return count2;
+    }
+
+    public Integer getCount3() {
+        return count3;
+    }
+
+    public Integer getCount4() {
+        return count4;
+    }
+
+    public Integer getCount5() {
+        return count5;
+    }
+}
@@ -0,0 +1,48 @@
+package com.flickcritic.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Opaque keyset position: the sort key of the last row a client has seen
+public record PageCursor(LocalDate date, Long id) {
+
+    public static PageCursor ofId(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static PageCursor of(LocalDate date, Long id) {
+        return new PageCursor(date, id);
+    }
+
+    public String encode() {
+        String raw = date != null ? date + ":" + id : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for a missing token; throws IllegalArgumentException for a malformed one
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                return ofId(Long.parseLong(raw));
+            }
+            return of(LocalDate.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    // Review pages are keyed on (date, id), so their cursors must carry a date
+    public static PageCursor decodeDated(String token) {
+        PageCursor cursor = decode(token);
+        if (cursor != null && cursor.date() == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,140 @@
+package com.flickcritic.ranking;
+
+import com.flickcritic.config.SampleDataLoadedEvent;
+import com.flickcritic.dto.MovieRating;
+import com.flickcritic.dto.RankedMovie;
+import com.flickcritic.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// In-memory leaderboard of rated movies, ordered by Bayesian-weighted rating:
+//   (reviewCount * average + priorWeight * priorMean) / (reviewCount + priorWeight)
+// so a movie with a handful of perfect scores does not outrank one with thousands of good ones.
+// The prior mean is the catalogue-wide average at the last rebuild and stays fixed between rebuilds,
+// otherwise every review would shift the key of every movie.
+@Component
+public class TopRatedRanking {
+
+    private static final Logger log = LoggerFactory.getLogger(TopRatedRanking.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    // Best first; ties go to the lower movie id
+    private static final Comparator<RankedMovie> ORDER = Comparator
+            .comparingDouble(RankedMovie::weightedRating).reversed()
+            .thenComparing(RankedMovie::id);
+
+    private final MovieRepository movieRepository;
+    private final double priorWeight;
+    private final double defaultPriorMean;
+    private volatile double priorMean;
+
+    private final ConcurrentSkipListSet<RankedMovie> ranked = new ConcurrentSkipListSet<>(ORDER);
+    // Each movie's entry in the ranked set, so an update can find and drop the stale one
+    private final ConcurrentMap<Long, RankedMovie> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TopRatedRanking(MovieRepository movieRepository,
+                           @Value("${flickcritic.ranking.prior-weight:10}") double priorWeight,
+                           @Value("${flickcritic.ranking.default-prior-mean:3.0}") double defaultPriorMean) {
+        this.movieRepository = movieRepository;
+        this.priorWeight = priorWeight;
+        this.defaultPriorMean = defaultPriorMean;
+        this.priorMean = defaultPriorMean;
+    }
+
+    // Load every rated movie once the application (including seeding) is up, a bounded batch at a time; again after
+    // background seeding, so one rebuild may overlap the other
+    @EventListener({ApplicationReadyEvent.class, SampleDataLoadedEvent.class})
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Double globalAverage = movieRepository.findGlobalAverageRating();
+        priorMean = globalAverage != null ? globalAverage : defaultPriorMean;
+        ranked.clear();
+        entries.clear();
+
+        Long afterId = 0L;
+        List<MovieRating> batch;
+        do {
+            batch = movieRepository.findRatedPageAfter(afterId, REBUILD_BATCH_SIZE);
+            for (MovieRating row : batch) {
+                update(row.id(), row.title(), row.imageUrl(), row.ratingSum(), row.reviewCount());
+                afterId = row.id();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        log.info("Ranked {} rated movies in {} ms (prior mean {})", size(),
+                (System.nanoTime() - start) / 1_000_000, String.format("%.3f", priorMean));
+    }
+
+    // Add, re-rank or (once it has no reviews left) drop a movie
+    public void update(Long movieId, String title, String imageUrl, Long ratingSum, Integer reviewCount) {
+        entries.compute(movieId, (id, previous) -> {
+            RankedMovie next = null;
+            if (reviewCount != null && reviewCount > 0 && ratingSum != null) {
+                double average = (double) ratingSum / reviewCount;
+                double weighted = (ratingSum + priorWeight * priorMean) / (reviewCount + priorWeight);
+                next = new RankedMovie(id, title, imageUrl, average, reviewCount, weighted);
+            }
+            if (previous != null && next != null && ORDER.compare(previous, next) == 0) {
+                // Same place in the order (a comment edit, a rename): the set would keep the stale entry on add and
+                // then drop the movie on remove, so swap it out instead; readers may miss it for that moment
+                ranked.remove(previous);
+                ranked.add(next);
+                return next;
+            }
+            if (next != null) {
+                // Insert before removing, so a concurrent reader sees the movie at least once
+                ranked.add(next);
+            }
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+            return next;
+        });
+    }
+
+    public void remove(Long movieId) {
+        entries.computeIfPresent(movieId, (id, previous) -> {
+            ranked.remove(previous);
+            return null;
+        });
+    }
+
+    // The movie's current entry, or null if it has no reviews
+    public RankedMovie get(Long movieId) {
+        return entries.get(movieId);
+    }
+
+    public List<RankedMovie> top(int limit) {
+        List<RankedMovie> top = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        for (RankedMovie movie : ranked) {
+            if (top.size() == limit) {
+                break;
+            }
+            // Mid-update a movie can briefly appear twice; keep its higher entry
+            if (seen.add(movie.id())) {
+                top.add(movie);
+            }
+        }
+        return top;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
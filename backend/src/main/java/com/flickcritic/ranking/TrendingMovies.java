@@ -0,0 +1,253 @@
+package com.flickcritic.ranking;
+
+import com.flickcritic.config.SampleDataLoadedEvent;
+import com.flickcritic.dto.RankedMovie;
+import com.flickcritic.dto.TrendingMovie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// In-memory trending list: each review of the last windowDays days adds rating / 5 to its movie's score, halved
+// every halfLifeDays of age, so a burst of recent well-rated reviews outranks a larger but older one. Reviews are
+// tallied per movie in one bucket per day; when the day changes, the oldest bucket falls out of the window and the
+// scores are recomputed from the buckets, so between day changes a score is fixed as of the start of the day.
+// Display fields come from the top-rated ranking, which holds every movie that has reviews.
+@Component
+public class TrendingMovies {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingMovies.class);
+
+    private static final String SELECT_RECENT_RATINGS = "select movie_id, rating, date from reviews where date >= ?";
+    private static final int FETCH_SIZE = 10_000;
+
+    // Best first; ties go to the lower movie id
+    private static final Comparator<Trend> ORDER = Comparator
+            .comparingDouble(Trend::score).reversed()
+            .thenComparing(Trend::movieId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TopRatedRanking topRatedRanking;
+    private final int windowDays;
+    private final double decayPerDay;
+
+    // Day buckets by epoch day modulo windowDays, and each movie's entry in the ranked set; guarded by this
+    private final DayBucket[] buckets;
+    private final Map<Long, Trend> entries = new HashMap<>();
+    // Written under this, read without it to check for a day change
+    private volatile long today;
+
+    // Updated in place under this for single reviews; replaced whole on a rescore, so readers never see it emptied
+    private volatile ConcurrentSkipListSet<Trend> ranked = new ConcurrentSkipListSet<>(ORDER);
+
+    @Autowired
+    public TrendingMovies(JdbcTemplate jdbcTemplate, TopRatedRanking topRatedRanking,
+                          @Value("${flickcritic.trending.window-days:30}") int windowDays,
+                          @Value("${flickcritic.trending.half-life-days:7}") double halfLifeDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.topRatedRanking = topRatedRanking;
+        this.windowDays = windowDays;
+        this.decayPerDay = Math.pow(0.5, 1 / halfLifeDays);
+        this.buckets = new DayBucket[windowDays];
+        this.today = LocalDate.now().toEpochDay();
+    }
+
+    // One streaming pass over the reviews inside the window, read off the date index; after background seeding
+    // too. Writes that commit while the pass runs may be counted twice or not at all until the next rebuild.
+    @EventListener({ApplicationReadyEvent.class, SampleDataLoadedEvent.class})
+    public void rebuild() {
+        long start = System.nanoTime();
+        long day = LocalDate.now().toEpochDay();
+        DayBucket[] loaded = new DayBucket[windowDays];
+        int[] rows = new int[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_RECENT_RATINGS);
+            statement.setDate(1, Date.valueOf(LocalDate.ofEpochDay(day - windowDays + 1)));
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) row -> {
+            long reviewDay = Math.min(day, row.getDate(3).toLocalDate().toEpochDay());
+            bucket(loaded, reviewDay).add(row.getLong(1), row.getInt(2), 1);
+            rows[0]++;
+        });
+
+        synchronized (this) {
+            System.arraycopy(loaded, 0, buckets, 0, windowDays);
+            today = day;
+            rescore();
+        }
+        log.info("Scored {} trending movies from {} reviews of the last {} days in {} ms", size(), rows[0],
+                windowDays, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Called after a review write commits: count is 1 for a new review and -1 for a deleted one, an edit being both.
+    // Reviews dated before the window are ignored and reviews dated in the future count as today's.
+    public synchronized void record(Long movieId, LocalDate date, int rating, int count) {
+        if (movieId == null || date == null) {
+            return;
+        }
+        advanceDay();
+        long reviewDay = Math.min(today, date.toEpochDay());
+        if (reviewDay <= today - windowDays) {
+            return;
+        }
+        bucket(buckets, reviewDay).add(movieId, rating, count);
+
+        Trend previous = entries.get(movieId);
+        double score = (previous != null ? previous.score() : 0) + count * weight(rating, today - reviewDay);
+        int reviews = (previous != null ? previous.reviews() : 0) + count;
+        long ratingSum = (previous != null ? previous.ratingSum() : 0) + (long) count * rating;
+        put(movieId, reviews > 0 ? new Trend(movieId, score, reviews, ratingSum) : null);
+    }
+
+    public synchronized void remove(Long movieId) {
+        for (DayBucket bucket : buckets) {
+            if (bucket != null) {
+                bucket.tallies.remove(movieId);
+            }
+        }
+        put(movieId, null);
+    }
+
+    public List<TrendingMovie> trending(int limit) {
+        if (LocalDate.now().toEpochDay() != today) {
+            synchronized (this) {
+                advanceDay();
+            }
+        }
+        List<TrendingMovie> trending = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        for (Trend trend : ranked) {
+            if (trending.size() == limit) {
+                break;
+            }
+            // Mid-update a movie can briefly appear twice; keep its higher entry. A movie deleted concurrently
+            // has already left the top-rated ranking.
+            RankedMovie movie = topRatedRanking.get(trend.movieId());
+            if (movie != null && seen.add(trend.movieId())) {
+                trending.add(new TrendingMovie(movie.id(), movie.title(), movie.imageUrl(), trend.reviews(),
+                        (double) trend.ratingSum() / trend.reviews(), trend.score()));
+            }
+        }
+        return trending;
+    }
+
+    // The earliest review date still inside the window
+    public LocalDate windowStart() {
+        return LocalDate.ofEpochDay(today - windowDays + 1);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void advanceDay() {
+        long day = LocalDate.now().toEpochDay();
+        if (day > today) {
+            today = day;
+            rescore();
+        }
+    }
+
+    // Drop the buckets that left the window and score every movie again as of today
+    private void rescore() {
+        Map<Long, Trend> scored = new HashMap<>();
+        for (int i = 0; i < windowDays; i++) {
+            DayBucket bucket = buckets[i];
+            if (bucket == null || bucket.day <= today - windowDays) {
+                buckets[i] = null;
+                continue;
+            }
+            bucket.tallies.forEach((movieId, tally) -> {
+                double score = tally.ratingSum / 5.0 * Math.pow(decayPerDay, today - bucket.day);
+                scored.merge(movieId, new Trend(movieId, score, tally.reviews, tally.ratingSum), Trend::plus);
+            });
+        }
+        ConcurrentSkipListSet<Trend> rescored = new ConcurrentSkipListSet<>(ORDER);
+        rescored.addAll(scored.values());
+        entries.clear();
+        entries.putAll(scored);
+        ranked = rescored;
+    }
+
+    private void put(Long movieId, Trend next) {
+        Trend current = entries.get(movieId);
+        if (current != null && next != null && ORDER.compare(current, next) == 0) {
+            // Same place in the order (an edit that kept the rating): adding would keep the stale entry and the
+            // removal would then drop the movie, so swap it out instead
+            ranked.remove(current);
+            ranked.add(next);
+            entries.put(movieId, next);
+            return;
+        }
+        // Insert before removing, so a concurrent reader sees the movie at least once
+        if (next != null) {
+            ranked.add(next);
+        }
+        Trend previous = next != null ? entries.put(movieId, next) : entries.remove(movieId);
+        if (previous != null) {
+            ranked.remove(previous);
+        }
+    }
+
+    private double weight(int rating, long age) {
+        return rating / 5.0 * Math.pow(decayPerDay, age);
+    }
+
+    private DayBucket bucket(DayBucket[] ring, long day) {
+        int slot = (int) Math.floorMod(day, (long) windowDays);
+        if (ring[slot] == null || ring[slot].day != day) {
+            ring[slot] = new DayBucket(day);
+        }
+        return ring[slot];
+    }
+
+    private record Trend(Long movieId, double score, int reviews, long ratingSum) {
+
+        Trend plus(Trend other) {
+            return new Trend(movieId, score + other.score, reviews + other.reviews, ratingSum + other.ratingSum);
+        }
+    }
+
+    // One day's reviews, tallied per movie
+    private static final class DayBucket {
+
+        final long day;
+        final Map<Long, Tally> tallies = new HashMap<>();
+
+        DayBucket(long day) {
+            this.day = day;
+        }
+
+        void add(Long movieId, int rating, int count) {
+            Tally tally = tallies.computeIfAbsent(movieId, id -> new Tally());
+            tally.reviews += count;
+            tally.ratingSum += (long) count * rating;
+            if (tally.reviews <= 0) {
+                tallies.remove(movieId);
+            }
+        }
+    }
+
+    private static final class Tally {
+        int reviews;
+        long ratingSum;
+    }
+}
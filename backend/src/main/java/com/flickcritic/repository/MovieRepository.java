@@ -1,13 +1,73 @@
 package com.flickcritic.repository;
 
+import com.flickcritic.dto.MovieCard;
+import com.flickcritic.dto.MovieRating;
+import com.flickcritic.dto.MovieText;
+import com.flickcritic.dto.MovieVersion;
+import com.flickcritic.dto.StoredRatings;
 import com.flickcritic.model.Movie;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface MovieRepository extends JpaRepository<Movie, Long> {
-    // Find movies by title containing the search term (case insensitive)
-    List<Movie> findByTitleContainingIgnoreCase(String title);
-} 
\ No newline at end of file
+public interface MovieRepository extends JpaRepository<Movie, Long>, MovieRepositoryCustom {
+    String MOVIE_CARD = "select new com.flickcritic.dto.MovieCard(m.id, m.title, m.imageUrl, m.averageRating, m.description) ";
+
+    @Query(MOVIE_CARD + "from Movie m order by m.id asc")
+    List<MovieCard> findAllCards();
+
+    // Resolve ranked search hits in one query
+    @Query(MOVIE_CARD + "from Movie m where m.id in :ids")
+    List<MovieCard> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Searchable text in id order, for rebuilding the search index in batches
+    @Query("select new com.flickcritic.dto.MovieText(m.id, m.title, m.description) from Movie m " +
+           "where m.id > :id order by m.id asc limit :limit")
+    List<MovieText> findTextPageAfter(@Param("id") Long id, @Param("limit") int limit);
+
+    // Validators for conditional GETs, without loading the entity
+    @Query("select new com.flickcritic.dto.MovieVersion(m.version, m.lastModified) from Movie m where m.id = :id")
+    Optional<MovieVersion> findVersionById(@Param("id") Long id);
+
+    // Rated movies in id order, for rebuilding the top-rated ranking in batches
+    @Query("select new com.flickcritic.dto.MovieRating(m.id, m.title, m.imageUrl, m.ratingSum, m.reviewCount) " +
+           "from Movie m where m.id > :id and m.reviewCount > 0 order by m.id asc limit :limit")
+    List<MovieRating> findRatedPageAfter(@Param("id") Long id, @Param("limit") int limit);
+
+    // Mean of all ratings across the catalogue, or null when there are no reviews
+    @Query("select cast(sum(m.ratingSum) as double) / nullif(sum(m.reviewCount), 0) from Movie m")
+    Double findGlobalAverageRating();
+
+    // Persisted aggregates in id order, for the rating consistency check
+    @Query("select new com.flickcritic.dto.StoredRatings(m.id, m.ratingSum, m.reviewCount, " +
+           "m.ratingHistogram.count1, m.ratingHistogram.count2, m.ratingHistogram.count3, " +
+           "m.ratingHistogram.count4, m.ratingHistogram.count5) " +
+           "from Movie m where m.id > :id order by m.id asc limit :limit")
+    List<StoredRatings> findStoredRatingsPageAfter(@Param("id") Long id, @Param("limit") int limit);
+
+    // Keyset pages ordered by id; the row cap is part of the query so no OFFSET is ever rendered
+    @Query(MOVIE_CARD + "from Movie m order by m.id asc limit :limit")
+    List<MovieCard> findFirstPage(@Param("limit") int limit);
+
+    @Query(MOVIE_CARD + "from Movie m where m.id > :id order by m.id asc limit :limit")
+    List<MovieCard> findPageAfter(@Param("id") Long id, @Param("limit") int limit);
+
+    // Forward-only cursor for exports; see ReviewRepository.streamForExport
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select m from Movie m order by m.id asc")
+    Stream<Movie> streamForExport();
+}
@@ -0,0 +1,34 @@
+package com.flickcritic.repository;
+
+import com.flickcritic.dto.MovieRating;
+import com.flickcritic.model.Movie;
+import com.flickcritic.model.RatingHistogram;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface MovieRepositoryCustom {
+    // Atomically add per-rating review count changes (negative for removals) to a movie's aggregates.
+    // Returns the aggregates this transaction will commit, or empty if the movie does not exist
+    Optional<MovieRating> incrementRatings(Long movieId, RatingHistogram delta);
+
+    // Lock the movies' rows until the transaction ends, so no review write can change their aggregates between a
+    // recount and resetRatings. Locks are taken in id order, as every recount takes them
+    void lockForRecount(Collection<Long> movieIds);
+
+    // Overwrite a movie's aggregates with a histogram recounted from its reviews; lock the row first with
+    // lockForRecount, or an increment committed after the recount is lost
+    Optional<MovieRating> resetRatings(Long movieId, RatingHistogram histogram);
+
+    // Change a movie's descriptive fields in place. No version check: review writes bump the version too, and an
+    // edit of the title must not conflict with them. Returns what this transaction will commit, or empty if the
+    // movie does not exist
+    Optional<MovieRating> updateDetails(Long movieId, String title, String imageUrl, String description);
+
+    // Lock a movie's row until the transaction ends and read the aggregates this transaction will commit, or empty if
+    // the movie does not exist
+    Optional<MovieRating> lockRating(Long movieId);
+
+    // Load a movie at the given version or later, past a second-level cache entry that predates it
+    Optional<Movie> findByIdAtVersion(Long movieId, long version);
+}
@@ -0,0 +1,145 @@
+package com.flickcritic.repository;
+
+import com.flickcritic.conditional.MovieVersions;
+import com.flickcritic.dto.MovieRating;
+import com.flickcritic.model.Movie;
+import com.flickcritic.model.RatingHistogram;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+// Rating aggregates are only ever changed in place by the database: concurrent writers to a hot movie queue on its
+// row lock for the length of one UPDATE plus commit instead of losing each other's read-modify-write.
+// Plain JDBC rather than a JPQL bulk update, which would evict every movie from the second-level cache.
+public class MovieRepositoryImpl implements MovieRepositoryCustom {
+
+    // Right-hand sides see the row as it was before this statement
+    private static final String INCREMENT_RATINGS = "update movies set " +
+            "rating_count_1 = rating_count_1 + ?, rating_count_2 = rating_count_2 + ?, " +
+            "rating_count_3 = rating_count_3 + ?, rating_count_4 = rating_count_4 + ?, " +
+            "rating_count_5 = rating_count_5 + ?, rating_sum = rating_sum + ?, review_count = review_count + ?, " +
+            "average_rating = case when review_count + ? > 0 " +
+            "then cast(rating_sum + ? as double precision) / (review_count + ?) else 0 end, " +
+            "version = version + 1, last_modified = current_timestamp where id = ?";
+
+    private static final String RESET_RATINGS = "update movies set " +
+            "rating_count_1 = ?, rating_count_2 = ?, rating_count_3 = ?, rating_count_4 = ?, rating_count_5 = ?, " +
+            "rating_sum = ?, review_count = ?, average_rating = ?, " +
+            "version = version + 1, last_modified = current_timestamp where id = ?";
+
+    private static final String UPDATE_DETAILS = "update movies set title = ?, image_url = ?, description = ?, " +
+            "version = version + 1, last_modified = current_timestamp where id = ?";
+
+    private static final String LOCK_FOR_RECOUNT = "select id from movies where id in (%s) order by id for update";
+
+    private static final String SELECT_RATING =
+            "select id, title, image_url, rating_sum, review_count, version from movies where id = ?";
+
+    private static final String LOCK_RATING = SELECT_RATING + " for update";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MovieVersions movieVersions;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public MovieRepositoryImpl(JdbcTemplate jdbcTemplate, @Lazy MovieVersions movieVersions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.movieVersions = movieVersions;
+    }
+
+    @Override
+    @Transactional
+    public Optional<MovieRating> incrementRatings(Long movieId, RatingHistogram delta) {
+        long sumDelta = delta.ratingSum();
+        int countDelta = delta.total();
+        int updated = jdbcTemplate.update(INCREMENT_RATINGS,
+                delta.getCount1(), delta.getCount2(), delta.getCount3(), delta.getCount4(), delta.getCount5(),
+                sumDelta, countDelta, countDelta, sumDelta, countDelta, movieId);
+        return afterUpdate(movieId, updated);
+    }
+
+    @Override
+    @Transactional
+    public void lockForRecount(Collection<Long> movieIds) {
+        if (movieIds.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(",", Collections.nCopies(movieIds.size(), "?"));
+        jdbcTemplate.queryForList(String.format(LOCK_FOR_RECOUNT, placeholders), Long.class, movieIds.toArray());
+    }
+
+    @Override
+    @Transactional
+    public Optional<MovieRating> resetRatings(Long movieId, RatingHistogram histogram) {
+        long ratingSum = histogram.ratingSum();
+        int reviewCount = histogram.total();
+        double averageRating = reviewCount > 0 ? (double) ratingSum / reviewCount : 0.0;
+        int updated = jdbcTemplate.update(RESET_RATINGS,
+                histogram.getCount1(), histogram.getCount2(), histogram.getCount3(), histogram.getCount4(),
+                histogram.getCount5(), ratingSum, reviewCount, averageRating, movieId);
+        return afterUpdate(movieId, updated);
+    }
+
+    @Override
+    @Transactional
+    public Optional<MovieRating> updateDetails(Long movieId, String title, String imageUrl, String description) {
+        int updated = jdbcTemplate.update(UPDATE_DETAILS, title, imageUrl, description, movieId);
+        return afterUpdate(movieId, updated);
+    }
+
+    @Override
+    @Transactional
+    public Optional<MovieRating> lockRating(Long movieId) {
+        return jdbcTemplate.query(LOCK_RATING, (rs, rowNum) -> rating(rs), movieId).stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Movie> findByIdAtVersion(Long movieId, long version) {
+        Movie movie = entityManager.find(Movie.class, movieId);
+        if (movie != null && movie.getVersion() < version) {
+            // A load that raced a commit re-cached the older row; refresh replaces the cache entry
+            entityManager.refresh(movie);
+        }
+        return Optional.ofNullable(movie);
+    }
+
+    private Optional<MovieRating> afterUpdate(Long movieId, int rowsUpdated) {
+        if (rowsUpdated == 0) {
+            return Optional.empty();
+        }
+        // The row stays locked by this transaction until commit, so this is exactly what it commits
+        UpdatedRating updated = jdbcTemplate.queryForObject(SELECT_RATING,
+                (rs, rowNum) -> new UpdatedRating(rating(rs), rs.getLong("version")), movieId);
+        // Once the new values are visible to other transactions, drop the cached copy and publish the version
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManager.getEntityManagerFactory().getCache().evict(Movie.class, movieId);
+                movieVersions.advance(movieId, updated.version());
+            }
+        });
+        return Optional.of(updated.rating());
+    }
+
+    private static MovieRating rating(ResultSet rs) throws SQLException {
+        return new MovieRating(rs.getLong("id"), rs.getString("title"), rs.getString("image_url"),
+                rs.getLong("rating_sum"), rs.getInt("review_count"));
+    }
+
+    private record UpdatedRating(MovieRating rating, long version) {
+    }
+}
@@ -1,13 +1,28 @@
 package com.flickcritic.repository;
 
+import com.flickcritic.dto.DatedRating;
+import com.flickcritic.dto.RatingBucket;
+import com.flickcritic.dto.ReviewView;
 import com.flickcritic.model.Review;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+    String REVIEW_VIEW = "select new com.flickcritic.dto.ReviewView(r.id, r.movie.id, r.user.id, r.username, " +
+                         "r.rating, r.comment, r.date) ";
+
     // Find reviews by movie ID
     List<Review> findByMovieId(Long movieId);
     
@@ -16,4 +31,79 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     
     // Find review by movie ID and user ID
     List<Review> findByMovieIdAndUserId(Long movieId, Long userId);
-} 
\ No newline at end of file
+
+    // At most one review per user and movie (unique constraint)
+    boolean existsByMovieIdAndUserId(Long movieId, Long userId);
+
+    // Flat views for the unpaged list endpoints
+    @Query(REVIEW_VIEW + "from Review r order by r.date desc, r.id desc")
+    List<ReviewView> findAllViews();
+
+    @Query(REVIEW_VIEW + "from Review r where r.movie.id = :movieId order by r.movie.id desc, r.date desc, r.id desc")
+    List<ReviewView> findViewsByMovieId(@Param("movieId") Long movieId);
+
+    @Query(REVIEW_VIEW + "from Review r where r.user.id = :userId order by r.user.id desc, r.date desc, r.id desc")
+    List<ReviewView> findViewsByUserId(@Param("userId") Long userId);
+
+    // Keyset pages ordered newest first by (date, id); the row cap is part of the query so no OFFSET is ever rendered.
+    // "r.date <= :date" is implied by the cursor condition but gives the index scan its start key, and the movie and
+    // user pages also order by their (constant) filter column so the rows come off the index already sorted
+    @Query(REVIEW_VIEW + "from Review r order by r.date desc, r.id desc limit :limit")
+    List<ReviewView> findFirstPage(@Param("limit") int limit);
+
+    @Query(REVIEW_VIEW + "from Review r where r.date <= :date and (r.date < :date or (r.date = :date and r.id < :id)) " +
+           "order by r.date desc, r.id desc limit :limit")
+    List<ReviewView> findPageBefore(@Param("date") LocalDate date, @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(REVIEW_VIEW + "from Review r where r.movie.id = :movieId " +
+           "order by r.movie.id desc, r.date desc, r.id desc limit :limit")
+    List<ReviewView> findFirstPageByMovieId(@Param("movieId") Long movieId, @Param("limit") int limit);
+
+    @Query(REVIEW_VIEW + "from Review r where r.movie.id = :movieId and r.date <= :date " +
+           "and (r.date < :date or (r.date = :date and r.id < :id)) " +
+           "order by r.movie.id desc, r.date desc, r.id desc limit :limit")
+    List<ReviewView> findPageByMovieIdBefore(@Param("movieId") Long movieId, @Param("date") LocalDate date,
+                                             @Param("id") Long id, @Param("limit") int limit);
+
+    @Query(REVIEW_VIEW + "from Review r where r.user.id = :userId " +
+           "order by r.user.id desc, r.date desc, r.id desc limit :limit")
+    List<ReviewView> findFirstPageByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Query(REVIEW_VIEW + "from Review r where r.user.id = :userId and r.date <= :date " +
+           "and (r.date < :date or (r.date = :date and r.id < :id)) " +
+           "order by r.user.id desc, r.date desc, r.id desc limit :limit")
+    List<ReviewView> findPageByUserIdBefore(@Param("userId") Long userId, @Param("date") LocalDate date,
+                                            @Param("id") Long id, @Param("limit") int limit);
+
+    // Recount rating histograms for a set of movies in one grouped query
+    @Query("select new com.flickcritic.dto.RatingBucket(r.movie.id, r.rating, count(r)) from Review r " +
+           "where r.movie.id in :movieIds group by r.movie.id, r.rating")
+    List<RatingBucket> findRatingBucketsByMovieIds(@Param("movieIds") Collection<Long> movieIds);
+
+    // A user's reviews counted per movie and rating, to take them out of those movies' aggregates
+    @Query("select new com.flickcritic.dto.RatingBucket(r.movie.id, r.rating, count(r)) from Review r " +
+           "where r.user.id = :userId group by r.movie.id, r.rating")
+    List<RatingBucket> findRatingBucketsByUserId(@Param("userId") Long userId);
+
+    // A user's reviews still inside the trending window, to take them out of it
+    @Query("select new com.flickcritic.dto.DatedRating(r.movie.id, r.rating, r.date) from Review r " +
+           "where r.user.id = :userId and r.date >= :since")
+    List<DatedRating> findDatedRatingsByUserIdSince(@Param("userId") Long userId, @Param("since") LocalDate since);
+
+    @Modifying
+    @Query("delete from Review r where r.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Forward-only cursor for exports: rows are fetched from the driver in batches, loaded read-only and kept out of
+    // the second-level cache; callers must consume it inside a transaction and close it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select r from Review r where (:movieId is null or r.movie.id = :movieId) " +
+           "and (:userId is null or r.user.id = :userId) " +
+           "and (:from is null or r.date >= :from) and (:to is null or r.date <= :to) order by r.id asc")
+    Stream<Review> streamForExport(@Param("movieId") Long movieId, @Param("userId") Long userId,
+                                   @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -1,16 +1,19 @@
 package com.flickcritic.repository;
 
+import com.flickcritic.dto.UserSummary;
 import com.flickcritic.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.List;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    // Find user by email
-    Optional<User> findByEmail(String email);
-    
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     // Check if a user exists with the given email
     boolean existsByEmail(String email);
+
+    // Flat summaries without credentials or reviews
+    @Query("select new com.flickcritic.dto.UserSummary(u.id, u.name, u.email, u.role) from User u order by u.id asc")
+    List<UserSummary> findAllSummaries();
 } 
\ No newline at end of file
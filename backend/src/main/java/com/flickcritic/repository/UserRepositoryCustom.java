@@ -0,0 +1,10 @@
+package com.flickcritic.repository;
+
+import com.flickcritic.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    // Find user by email through the cached natural-id lookup
+    Optional<User> findByEmail(String email);
+}
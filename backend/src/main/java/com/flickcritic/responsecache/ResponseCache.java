@@ -0,0 +1,278 @@
+package com.flickcritic.responsecache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickcritic.config.SampleDataLoadedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Response bodies of the hot read endpoints, kept already encoded as JSON (and gzip-compressed when large enough),
+// so a hit is copied to the response as bytes without mapping any object. Bounded by the total size of the bodies
+// and evicted least recently used first.
+//
+// Entries of one movie (the movie, pages of its reviews) are keyed by the movie's version, and list entries by a
+// catalog generation read before the list is loaded, so a body loaded before a write commits is never served after
+// the write is published. The write paths drop the entries they make unreachable right away rather than leaving
+// them to age out.
+@Component
+public class ResponseCache {
+
+    private static final String CATALOG_GROUP = "catalog";
+    // Rough per-entry cost of the key, headers and map nodes, on top of the bodies
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final ResponseCacheProperties properties;
+    private final ObjectMapper objectMapper;
+
+    // Access order; guarded by itself, as is keysByGroup
+    private final LinkedHashMap<String, EncodedResponse> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    private final Map<String, Set<String>> keysByGroup = new HashMap<>();
+    private volatile long bytes;
+    private long catalogGeneration;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evicted;
+    private final Counter invalidated;
+
+    @Autowired
+    public ResponseCache(ResponseCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        Gauge.builder("flickcritic.response-cache.size", this, ResponseCache::bytes)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("flickcritic.response-cache.entries", this, ResponseCache::size).register(meterRegistry);
+        this.hits = meterRegistry.counter("flickcritic.response-cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("flickcritic.response-cache.requests", "result", "miss");
+        this.evicted = meterRegistry.counter("flickcritic.response-cache.removed", "reason", "capacity");
+        this.invalidated = meterRegistry.counter("flickcritic.response-cache.removed", "reason", "invalidated");
+    }
+
+    // A response about one movie; the key must include the movie's current version
+    public ResponseEntity<?> forMovie(Long movieId, String key, ServletWebRequest request,
+                                      Supplier<ResponseEntity<?>> loader) {
+        return respond(movieGroup(movieId), key, -1, request, loader);
+    }
+
+    // A list spanning movies, valid until the next write to any movie or review
+    public ResponseEntity<?> forCatalog(String key, ServletWebRequest request, Supplier<ResponseEntity<?>> loader) {
+        long generation;
+        synchronized (entries) {
+            generation = catalogGeneration;
+        }
+        return respond(CATALOG_GROUP, "catalog-" + generation + ":" + key, generation, request, loader);
+    }
+
+    // Called after a write to the movie, or to one of its reviews, has committed
+    public void invalidateMovie(Long movieId) {
+        synchronized (entries) {
+            removeGroup(movieGroup(movieId));
+            invalidateCatalogLocked();
+        }
+    }
+
+    // Called after a write that changes lists but no cached movie, such as an import of new movies
+    public void invalidateCatalog() {
+        synchronized (entries) {
+            invalidateCatalogLocked();
+        }
+    }
+
+    // Seed data and the synthetic generator write without going through the services, after the server is listening
+    @EventListener({ApplicationReadyEvent.class, SampleDataLoadedEvent.class})
+    public void clear() {
+        synchronized (entries) {
+            invalidated.increment(entries.size());
+            entries.clear();
+            keysByGroup.clear();
+            bytes = 0;
+            catalogGeneration++;
+        }
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private ResponseEntity<?> respond(String group, String key, long generation, ServletWebRequest request,
+                                      Supplier<ResponseEntity<?>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        EncodedResponse cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached.toResponseEntity(gzip);
+        }
+        misses.increment();
+
+        ResponseEntity<?> loaded = loader.get();
+        // Not-found and error responses are cheap to build and not worth the space
+        if (loaded.getStatusCode() != HttpStatus.OK || loaded.getBody() == null) {
+            return loaded;
+        }
+        EncodedResponse encoded = encode(group, key, loaded);
+        if (encoded.size() <= properties.getMaxEntrySize().toBytes()) {
+            store(encoded, generation);
+        }
+        return encoded.toResponseEntity(gzip);
+    }
+
+    private EncodedResponse encode(String group, String key, ResponseEntity<?> loaded) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(loaded.getBody());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] gzipBody = null;
+        if (body.length >= properties.getGzipMinSize().toBytes()) {
+            gzipBody = gzip(body);
+            // Already-compact bodies are not worth a second copy
+            if (gzipBody.length >= body.length) {
+                gzipBody = null;
+            }
+        }
+        return new EncodedResponse(group, key, HttpHeaders.readOnlyHttpHeaders(loaded.getHeaders()), body, gzipBody);
+    }
+
+    private void store(EncodedResponse entry, long generation) {
+        long maxBytes = properties.getMaxSize().toBytes();
+        synchronized (entries) {
+            // The catalog changed while the list was loading; nothing would look this key up again
+            if (generation >= 0 && generation != catalogGeneration) {
+                return;
+            }
+            EncodedResponse previous = entries.put(entry.key(), entry);
+            long total = bytes + entry.size() - (previous != null ? previous.size() : 0);
+            keysByGroup.computeIfAbsent(entry.group(), group -> new HashSet<>()).add(entry.key());
+            Iterator<EncodedResponse> eldest = entries.values().iterator();
+            while (total > maxBytes && eldest.hasNext()) {
+                EncodedResponse victim = eldest.next();
+                eldest.remove();
+                unindex(victim);
+                total -= victim.size();
+                evicted.increment();
+            }
+            bytes = total;
+        }
+    }
+
+    private void invalidateCatalogLocked() {
+        catalogGeneration++;
+        removeGroup(CATALOG_GROUP);
+    }
+
+    private void removeGroup(String group) {
+        Set<String> keys = keysByGroup.remove(group);
+        if (keys == null) {
+            return;
+        }
+        long total = bytes;
+        for (String key : keys) {
+            EncodedResponse removed = entries.remove(key);
+            if (removed != null) {
+                total -= removed.size();
+                invalidated.increment();
+            }
+        }
+        bytes = total;
+    }
+
+    private void unindex(EncodedResponse entry) {
+        Set<String> keys = keysByGroup.get(entry.group());
+        if (keys != null && keys.remove(entry.key()) && keys.isEmpty()) {
+            keysByGroup.remove(entry.group());
+        }
+    }
+
+    private static String movieGroup(Long movieId) {
+        return "movie-" + movieId;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    // True if gzip is listed without q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private record EncodedResponse(String group, String key, HttpHeaders headers, byte[] body, byte[] gzipBody) {
+
+        long size() {
+            return body.length + (gzipBody != null ? gzipBody.length : 0) + 2L * key.length() + ENTRY_OVERHEAD_BYTES;
+        }
+
+        // Written by the byte array converter as is
+        ResponseEntity<byte[]> toResponseEntity(boolean gzip) {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .headers(headers)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip && gzipBody != null) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzipBody);
+            }
+            return builder.body(body);
+        }
+    }
+}
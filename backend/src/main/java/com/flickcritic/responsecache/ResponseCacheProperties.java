@@ -0,0 +1,54 @@
+package com.flickcritic.responsecache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties(prefix = "flickcritic.response-cache")
+public class ResponseCacheProperties {
+
+    // Off: every read endpoint serializes its response on each request
+    private boolean enabled = true;
+
+    // Total size of the cached bodies, both encodings, before the least recently used are evicted
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    // Larger bodies (e.g. unpaged lists) are served but not cached
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    // Bodies at least this large are also kept gzip-compressed for clients that accept it
+    private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public DataSize getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public void setMaxEntrySize(DataSize maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public DataSize getGzipMinSize() {
+        return gzipMinSize;
+    }
+
+    public void setGzipMinSize(DataSize gzipMinSize) {
+        this.gzipMinSize = gzipMinSize;
+    }
+}
@@ -0,0 +1,326 @@
+package com.flickcritic.search;
+
+import com.flickcritic.config.SampleDataLoadedEvent;
+import com.flickcritic.dto.MovieText;
+import com.flickcritic.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over movie titles and descriptions, ranked with BM25
+@Component
+public class MovieSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Title tokens count this many times towards term frequency and document length
+    private static final int TITLE_WEIGHT = 3;
+    // Cap on how many dictionary terms the trailing query term may expand to as a prefix
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern APOSTROPHES = Pattern.compile("['’]");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final MovieRepository movieRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Term -> postings sorted by document slot; a TreeMap so the last query term can be prefix-expanded
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, Integer> slotByMovieId = new HashMap<>();
+
+    // Per-slot document state; slots of removed movies are recycled
+    private long[] movieIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private String[][] docTerms = new String[1024][];
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private int nextSlot;
+    private int docCount;
+    private long totalLength;
+
+    @Autowired
+    public MovieSearchIndex(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    // Load every movie once the application (including seeding) is up, and again after background seeding
+    @EventListener({ApplicationReadyEvent.class, SampleDataLoadedEvent.class})
+    public void rebuild() {
+        long start = System.nanoTime();
+        Long afterId = 0L;
+        List<MovieText> batch;
+        do {
+            batch = movieRepository.findTextPageAfter(afterId, REBUILD_BATCH_SIZE);
+            for (MovieText text : batch) {
+                index(text.id(), text.title(), text.description());
+                afterId = text.id();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        log.info("Indexed {} movies for search in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Add or replace a movie's document
+    public void index(Long movieId, String title, String description) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        int length = 0;
+        for (String term : tokenize(title)) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String term : tokenize(description)) {
+            frequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(movieId);
+            int slot = allocateSlot();
+            movieIds[slot] = movieId;
+            docLengths[slot] = length;
+            docTerms[slot] = frequencies.keySet().toArray(new String[0]);
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                dictionary.computeIfAbsent(entry.getKey(), key -> new Postings()).add(slot, entry.getValue());
+            }
+            slotByMovieId.put(movieId, slot);
+            docCount++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long movieId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(movieId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Movie ids matching any query term, best BM25 score first
+    public List<Long> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Treat the trailing term as a prefix unless the user has finished typing it
+        boolean expandLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            Set<String> seen = new LinkedHashSet<>();
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                if (i == terms.size() - 1 && expandLast) {
+                    int expansions = 0;
+                    for (Map.Entry<String, Postings> entry
+                            : dictionary.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+                        if (seen.add(entry.getKey())) {
+                            lists.add(entry.getValue());
+                        }
+                        if (++expansions == MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                    }
+                } else if (seen.add(term)) {
+                    Postings postings = dictionary.get(term);
+                    if (postings != null) {
+                        lists.add(postings);
+                    }
+                }
+            }
+            return rank(lists, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Document-at-a-time union of the postings lists, keeping a bounded top-k heap
+    private List<Long> rank(List<Postings> lists, int limit) {
+        if (lists.isEmpty()) {
+            return List.of();
+        }
+        int listCount = lists.size();
+        double[] idf = new double[listCount];
+        int[] cursors = new int[listCount];
+        for (int i = 0; i < listCount; i++) {
+            int df = lists.get(i).size;
+            idf[i] = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+        }
+        double averageLength = docCount > 0 ? (double) totalLength / docCount : 1.0;
+
+        PriorityQueue<ScoredDoc> top = new PriorityQueue<>(limit);
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int i = 0; i < listCount; i++) {
+                Postings postings = lists.get(i);
+                if (cursors[i] < postings.size && postings.docs[cursors[i]] < doc) {
+                    doc = postings.docs[cursors[i]];
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+            double norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+            double score = 0.0;
+            for (int i = 0; i < listCount; i++) {
+                Postings postings = lists.get(i);
+                if (cursors[i] < postings.size && postings.docs[cursors[i]] == doc) {
+                    int tf = postings.freqs[cursors[i]++];
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+            // Only allocate an entry when the document makes it into the current top-k
+            long movieId = movieIds[doc];
+            if (top.size() < limit) {
+                top.offer(new ScoredDoc(movieId, score));
+            } else if (top.peek().isBeatenBy(movieId, score)) {
+                top.poll();
+                top.offer(new ScoredDoc(movieId, score));
+            }
+        }
+
+        ScoredDoc[] ranked = top.toArray(new ScoredDoc[0]);
+        Arrays.sort(ranked, (a, b) -> b.compareTo(a));
+        List<Long> result = new ArrayList<>(ranked.length);
+        for (ScoredDoc scored : ranked) {
+            result.add(scored.movieId());
+        }
+        return result;
+    }
+
+    private void removeLocked(Long movieId) {
+        Integer slot = slotByMovieId.remove(movieId);
+        if (slot == null) {
+            return;
+        }
+        for (String term : docTerms[slot]) {
+            Postings postings = dictionary.get(term);
+            if (postings != null && postings.remove(slot) && postings.size == 0) {
+                dictionary.remove(term);
+            }
+        }
+        docCount--;
+        totalLength -= docLengths[slot];
+        docTerms[slot] = null;
+        docLengths[slot] = 0;
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (nextSlot == movieIds.length) {
+            int capacity = movieIds.length * 2;
+            movieIds = Arrays.copyOf(movieIds, capacity);
+            docLengths = Arrays.copyOf(docLengths, capacity);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+        }
+        return nextSlot++;
+    }
+
+    // Lower-cased, accent-folded alphanumeric tokens
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        folded = APOSTROPHES.matcher(folded).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Parallel primitive arrays of document slots (ascending) and term frequencies
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void add(int doc, int freq) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos >= 0) {
+                freqs[pos] = freq;
+                return;
+            }
+            pos = -pos - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+            System.arraycopy(freqs, pos, freqs, pos + 1, size - pos);
+            docs[pos] = doc;
+            freqs[pos] = freq;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+            System.arraycopy(freqs, pos + 1, freqs, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+
+    private record ScoredDoc(long movieId, double score) implements Comparable<ScoredDoc> {
+        // Higher score wins; ties go to the lower movie id
+        @Override
+        public int compareTo(ScoredDoc other) {
+            int byScore = Double.compare(score, other.score);
+            return byScore != 0 ? byScore : Long.compare(other.movieId, movieId);
+        }
+
+        boolean isBeatenBy(long otherMovieId, double otherScore) {
+            int byScore = Double.compare(otherScore, score);
+            return byScore > 0 || (byScore == 0 && otherMovieId < movieId);
+        }
+    }
+}
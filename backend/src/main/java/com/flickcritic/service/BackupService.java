@@ -0,0 +1,7 @@
+package com.flickcritic.service;
+
+import com.flickcritic.dto.BackupResult;
+
+public interface BackupService {
+    BackupResult backup();
+}
@@ -0,0 +1,114 @@
+package com.flickcritic.service;
+
+import com.flickcritic.dto.BackupResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+// Online backups of the file-backed database with H2's BACKUP command. It copies the store without locking any
+// table, so readers and writers carry on, and the copy is transactionally consistent. One backup runs at a time;
+// only the newest flickcritic.backup.retain zips are kept. Restore by unzipping one into flickcritic.data-dir while
+// the application is stopped.
+@Service
+public class BackupServiceImpl implements BackupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BackupServiceImpl.class);
+
+    private static final String FILE_PREFIX = "flickcritic-";
+    private static final String FILE_SUFFIX = ".zip";
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean fileBacked;
+    private final Path directory;
+    private final int retain;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public BackupServiceImpl(JdbcTemplate jdbcTemplate,
+                             @Value("${spring.datasource.url}") String url,
+                             @Value("${flickcritic.backup.directory:./backups}") Path directory,
+                             @Value("${flickcritic.backup.retain:7}") int retain) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fileBacked = url.startsWith("jdbc:h2:") && !url.startsWith("jdbc:h2:mem:");
+        this.directory = directory.toAbsolutePath().normalize();
+        this.retain = retain;
+    }
+
+    @Scheduled(cron = "${flickcritic.backup.cron:-}")
+    public void scheduledBackup() {
+        try {
+            backup();
+        } catch (IllegalStateException e) {
+            log.warn("Scheduled backup skipped: {}", e.getMessage());
+        }
+    }
+
+    // IllegalStateException when the database is in memory or another backup is still running
+    @Override
+    public BackupResult backup() {
+        if (!fileBacked) {
+            throw new IllegalStateException("Backups need a file-backed database (run with the durable profile)");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A backup is already running");
+        }
+        try {
+            Files.createDirectories(directory);
+            Instant startedAt = Instant.now();
+            Path target = directory.resolve(FILE_PREFIX + FILE_TIMESTAMP.format(startedAt) + FILE_SUFFIX);
+            // Written under a temporary name, so a backup cut short by a failure or shutdown is never mistaken
+            // for a complete one
+            Path partial = target.resolveSibling(target.getFileName() + ".part");
+            long start = System.nanoTime();
+            try {
+                jdbcTemplate.execute("backup to '" + partial.toString().replace("'", "''") + "'");
+                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            long bytes = Files.size(target);
+            log.info("Backed up the database to {} ({} MB in {} ms)", target, bytes >> 20, durationMillis);
+            prune();
+            return new BackupResult(target.getFileName().toString(), bytes, durationMillis, startedAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void prune() throws IOException {
+        List<Path> backups;
+        try (Stream<Path> files = Files.list(directory)) {
+            // The timestamped names sort oldest first
+            backups = files.filter(file -> file.getFileName().toString().startsWith(FILE_PREFIX)
+                            && file.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                    .toList();
+        }
+        for (Path old : backups.subList(0, Math.max(0, backups.size() - retain))) {
+            Files.deleteIfExists(old);
+            log.info("Removed old backup {}", old.getFileName());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.flickcritic.service;
+
+import com.flickcritic.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface ExportService {
+    long exportReviews(Long movieId, Long userId, LocalDate from, LocalDate to, ExportFormat format,
+                       OutputStream out) throws IOException;
+    long exportMovies(ExportFormat format, OutputStream out) throws IOException;
+}
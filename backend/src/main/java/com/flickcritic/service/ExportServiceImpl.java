@@ -0,0 +1,94 @@
+package com.flickcritic.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickcritic.dto.MovieCard;
+import com.flickcritic.dto.ReviewView;
+import com.flickcritic.export.ExportFormat;
+import com.flickcritic.export.RecordWriter;
+import com.flickcritic.model.Movie;
+import com.flickcritic.model.Review;
+import com.flickcritic.repository.MovieRepository;
+import com.flickcritic.repository.ReviewRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Streams rows straight from a database cursor to the response. Every chunk the persistence context is cleared
+// and the output flushed, so neither the session nor the response buffer grows with the table.
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final ReviewRepository reviewRepository;
+    private final MovieRepository movieRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ExportServiceImpl(ReviewRepository reviewRepository, MovieRepository movieRepository,
+                             ObjectMapper objectMapper) {
+        this.reviewRepository = reviewRepository;
+        this.movieRepository = movieRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportReviews(Long movieId, Long userId, LocalDate from, LocalDate to, ExportFormat format,
+                              OutputStream out) throws IOException {
+        RecordWriter writer = new RecordWriter(format, objectMapper, out,
+                "id", "movieId", "userId", "username", "rating", "comment", "date");
+        long rows = 0;
+        try (Stream<Review> reviews = reviewRepository.streamForExport(movieId, userId, from, to)) {
+            Iterator<Review> iterator = reviews.iterator();
+            while (iterator.hasNext()) {
+                // Movie and user ids come from the unloaded proxies, so no association is fetched
+                ReviewView review = ReviewView.from(iterator.next());
+                writer.write(review, review.id(), review.movieId(), review.userId(), review.username(),
+                        review.rating(), review.comment(), review.date());
+                if (++rows % CHUNK_SIZE == 0) {
+                    endChunk(writer);
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportMovies(ExportFormat format, OutputStream out) throws IOException {
+        RecordWriter writer = new RecordWriter(format, objectMapper, out,
+                "id", "title", "imageUrl", "averageRating", "description");
+        long rows = 0;
+        try (Stream<Movie> movies = movieRepository.streamForExport()) {
+            Iterator<Movie> iterator = movies.iterator();
+            while (iterator.hasNext()) {
+                MovieCard movie = MovieCard.from(iterator.next());
+                writer.write(movie, movie.id(), movie.title(), movie.imageUrl(), movie.averageRating(),
+                        movie.description());
+                if (++rows % CHUNK_SIZE == 0) {
+                    endChunk(writer);
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private void endChunk(RecordWriter writer) throws IOException {
+        entityManager.clear();
+        writer.flush();
+    }
+}
@@ -0,0 +1,11 @@
+package com.flickcritic.service;
+
+import com.flickcritic.dto.ImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportService {
+    ImportResult importMovies(InputStream ndjson) throws IOException;
+    ImportResult importReviews(InputStream ndjson) throws IOException;
+}
@@ -0,0 +1,248 @@
+package com.flickcritic.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickcritic.dto.ImportResult;
+import com.flickcritic.dto.ReviewView;
+import com.flickcritic.model.Movie;
+import com.flickcritic.model.Review;
+import com.flickcritic.ranking.TrendingMovies;
+import com.flickcritic.repository.MovieRepository;
+import com.flickcritic.repository.ReviewRepository;
+import com.flickcritic.repository.UserRepository;
+import com.flickcritic.responsecache.ResponseCache;
+import com.flickcritic.search.MovieSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final MovieRepository movieRepository;
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final ReviewService reviewService;
+    private final MovieSearchIndex movieSearchIndex;
+    private final ResponseCache responseCache;
+    private final TrendingMovies trendingMovies;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ImportServiceImpl(MovieRepository movieRepository, ReviewRepository reviewRepository,
+                             UserRepository userRepository, ReviewService reviewService,
+                             MovieSearchIndex movieSearchIndex, ResponseCache responseCache,
+                             TrendingMovies trendingMovies, ObjectMapper objectMapper, Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${flickcritic.import.chunk-size:500}") int chunkSize) {
+        this.movieRepository = movieRepository;
+        this.reviewRepository = reviewRepository;
+        this.userRepository = userRepository;
+        this.reviewService = reviewService;
+        this.movieSearchIndex = movieSearchIndex;
+        this.responseCache = responseCache;
+        this.trendingMovies = trendingMovies;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ImportResult importMovies(InputStream ndjson) throws IOException {
+        ImportRun run = new ImportRun();
+        List<Row<Movie>> chunk = new ArrayList<>(chunkSize);
+        readLines(ndjson, run, (line, lineNumber) -> {
+            Movie movie = objectMapper.readValue(line, Movie.class);
+            movie.setId(null);
+            movie.setReviews(new ArrayList<>());
+            if (run.accept(lineNumber, validator.validate(movie))) {
+                chunk.add(new Row<>(lineNumber, movie));
+            }
+            if (chunk.size() == chunkSize) {
+                commitChunk(chunk, run, movieRepository::saveAll, ImportServiceImpl::copyMovie, this::indexMovies);
+            }
+        });
+        commitChunk(chunk, run, movieRepository::saveAll, ImportServiceImpl::copyMovie, this::indexMovies);
+        return run.toResult();
+    }
+
+    @Override
+    public ImportResult importReviews(InputStream ndjson) throws IOException {
+        ImportRun run = new ImportRun();
+        List<Row<Review>> chunk = new ArrayList<>(chunkSize);
+        // Movies with at least one imported review that committed
+        Set<Long> affectedMovieIds = new HashSet<>();
+        Consumer<List<Review>> collectMovieIds = saved -> saved.forEach(review ->
+                affectedMovieIds.add(review.getMovie().getId()));
+        readLines(ndjson, run, (line, lineNumber) -> {
+            ReviewView view = objectMapper.readValue(line, ReviewView.class);
+            if (view.movieId() == null || view.userId() == null) {
+                run.rejectLine(lineNumber, "movieId and userId are required");
+                return;
+            }
+            // References only; the foreign keys are checked by the database on insert
+            Review review = new Review(null, movieRepository.getReferenceById(view.movieId()),
+                    userRepository.getReferenceById(view.userId()), view.username(), view.rating(),
+                    view.comment(), view.date());
+            if (run.accept(lineNumber, validator.validate(review))) {
+                chunk.add(new Row<>(lineNumber, review));
+            }
+            if (chunk.size() == chunkSize) {
+                commitChunk(chunk, run, reviewRepository::saveAll, ImportServiceImpl::copyReview, collectMovieIds);
+            }
+        });
+        commitChunk(chunk, run, reviewRepository::saveAll, ImportServiceImpl::copyReview, collectMovieIds);
+
+        // One aggregate recomputation per affected movie instead of one update per review, a chunk of movies per
+        // transaction so no long transaction holds their row locks
+        List<Long> movieIds = new ArrayList<>(affectedMovieIds);
+        for (int from = 0; from < movieIds.size(); from += chunkSize) {
+            reviewService.recomputeRatingAggregates(movieIds.subList(from, Math.min(from + chunkSize, movieIds.size())));
+        }
+        // Imported reviews may fall inside the trending window; one pass over the window picks them up
+        trendingMovies.rebuild();
+        return run.toResult();
+    }
+
+    private void readLines(InputStream ndjson, ImportRun run, LineHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                handler.handle(line, lineNumber);
+            } catch (JsonProcessingException e) {
+                run.rejectLine(lineNumber, "malformed JSON");
+            }
+        }
+    }
+
+    // Persist one chunk in its own transaction, then drop it from the persistence context. If the database rejects
+    // any row (an unknown movie or user, a second review of a movie by the same user), the chunk rolls back and its
+    // rows are retried one per transaction from fresh copies, so only the rejected rows are lost
+    private <T> void commitChunk(List<Row<T>> chunk, ImportRun run, Consumer<List<T>> save, UnaryOperator<T> copy,
+                                 Consumer<List<T>> afterCommit) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<T> entities = chunk.stream().map(Row::entity).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> save.accept(entities));
+            run.imported += entities.size();
+            afterCommit.accept(entities);
+        } catch (RuntimeException e) {
+            entityManager.clear();
+            List<T> saved = new ArrayList<>();
+            for (Row<T> row : chunk) {
+                T entity = copy.apply(row.entity());
+                try {
+                    transactionTemplate.executeWithoutResult(status -> save.accept(List.of(entity)));
+                    saved.add(entity);
+                } catch (RuntimeException single) {
+                    run.rejectLine(row.lineNumber(), rejection(single));
+                }
+            }
+            run.imported += saved.size();
+            if (!saved.isEmpty()) {
+                afterCommit.accept(saved);
+            }
+        } finally {
+            entityManager.clear();
+            chunk.clear();
+        }
+    }
+
+    // The database's own message, without the statement it is quoted with
+    private static String rejection(RuntimeException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        int statement = message != null ? message.indexOf("; SQL statement:") : -1;
+        return statement >= 0 ? message.substring(0, statement) : String.valueOf(message);
+    }
+
+    // A failed persist leaves the id and version set on the entity, so a retry starts from a copy
+    private static Movie copyMovie(Movie movie) {
+        return new Movie(null, movie.getTitle(), movie.getImageUrl(), movie.getDescription(), null, new ArrayList<>());
+    }
+
+    private static Review copyReview(Review review) {
+        return new Review(null, review.getMovie(), review.getUser(), review.getUsername(), review.getRating(),
+                review.getComment(), review.getDate());
+    }
+
+    private void indexMovies(List<Movie> movies) {
+        for (Movie movie : movies) {
+            movieSearchIndex.index(movie.getId(), movie.getTitle(), movie.getDescription());
+        }
+        // New movies publish no version, but they change the cached lists
+        responseCache.invalidateCatalog();
+    }
+
+    private record Row<T>(int lineNumber, T entity) {
+    }
+
+    @FunctionalInterface
+    private interface LineHandler {
+        void handle(String line, int lineNumber) throws JsonProcessingException;
+    }
+
+    private static final class ImportRun {
+        private int imported;
+        private int rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        <T> boolean accept(int lineNumber, Set<ConstraintViolation<T>> violations) {
+            if (violations.isEmpty()) {
+                return true;
+            }
+            rejectLine(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return false;
+        }
+
+        void rejectLine(int lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+
+        ImportResult toResult() {
+            return new ImportResult(imported, rejected, List.copyOf(errors));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.flickcritic.service;
+
+import com.flickcritic.dto.MovieDetail;
+
+import java.util.Optional;
+
+public interface MovieDetailService {
+    Optional<MovieDetail> getMovieDetail(Long id, long version, int reviewLimit);
+}
@@ -0,0 +1,43 @@
+package com.flickcritic.service;
+
+import com.flickcritic.dto.MovieDetail;
+import com.flickcritic.dto.ReviewView;
+import com.flickcritic.fanout.FanOut;
+import com.flickcritic.fanout.FanOutExecutor;
+import com.flickcritic.model.Movie;
+import com.flickcritic.pagination.CursorPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.Future;
+
+// The movie row and the first review page are independent reads, so they run concurrently, each in its own
+// read transaction, within one timeout budget. A read that misses the budget fails the whole detail with
+// QueryTimeoutException rather than returning part of it.
+@Service
+public class MovieDetailServiceImpl implements MovieDetailService {
+
+    private final MovieService movieService;
+    private final ReviewService reviewService;
+    private final FanOutExecutor fanOutExecutor;
+
+    @Autowired
+    public MovieDetailServiceImpl(MovieService movieService, ReviewService reviewService,
+                                  FanOutExecutor fanOutExecutor) {
+        this.movieService = movieService;
+        this.reviewService = reviewService;
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
+    // Empty if the movie no longer exists at that version
+    @Override
+    public Optional<MovieDetail> getMovieDetail(Long id, long version, int reviewLimit) {
+        try (FanOut fanOut = fanOutExecutor.begin()) {
+            Future<Optional<Movie>> movie = fanOut.fork(() -> movieService.getMovieAtVersion(id, version));
+            Future<CursorPage<ReviewView>> reviews =
+                    fanOut.fork(() -> reviewService.getReviewsByMovieIdPage(id, null, reviewLimit));
+            return fanOut.join(movie).map(loaded -> MovieDetail.from(loaded, fanOut.join(reviews)));
+        }
+    }
+}
@@ -1,14 +1,27 @@
 package com.flickcritic.service;
 
+import com.flickcritic.dto.MovieCard;
+import com.flickcritic.dto.RankedMovie;
+import com.flickcritic.dto.SimilarMovie;
+import com.flickcritic.dto.TrendingMovie;
 import com.flickcritic.model.Movie;
+import com.flickcritic.pagination.CursorPage;
+import com.flickcritic.pagination.PageCursor;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface MovieService {
-    List<Movie> getAllMovies();
+    List<MovieCard> getAllMovies();
+    List<MovieCard> getMoviesByIds(List<Long> ids);
+    CursorPage<MovieCard> getMoviesPage(PageCursor after, int limit);
     Optional<Movie> getMovieById(Long id);
+    Optional<Movie> getMovieAtVersion(Long id, long version);
     Movie saveMovie(Movie movie);
+    Optional<Movie> updateMovieDetails(Long id, String title, String imageUrl, String description);
     void deleteMovie(Long id);
-    List<Movie> searchMovies(String keyword);
+    List<MovieCard> searchMovies(String keyword, int limit);
+    List<RankedMovie> getTopRatedMovies(int limit);
+    List<SimilarMovie> getSimilarMovies(Long id, int limit);
+    List<TrendingMovie> getTrendingMovies(int limit);
 } 
\ No newline at end of file
@@ -1,26 +1,84 @@
 package com.flickcritic.service;
 
+import com.flickcritic.conditional.MovieVersions;
+import com.flickcritic.dto.MovieCard;
+import com.flickcritic.dto.MovieRating;
+import com.flickcritic.dto.RankedMovie;
+import com.flickcritic.dto.SimilarMovie;
+import com.flickcritic.dto.TrendingMovie;
 import com.flickcritic.model.Movie;
+import com.flickcritic.pagination.CursorPage;
+import com.flickcritic.pagination.PageCursor;
+import com.flickcritic.ranking.TopRatedRanking;
+import com.flickcritic.ranking.TrendingMovies;
 import com.flickcritic.repository.MovieRepository;
+import com.flickcritic.responsecache.ResponseCache;
+import com.flickcritic.search.MovieSearchIndex;
+import com.flickcritic.similar.SimilarMovies;
+import com.flickcritic.similar.SimilarityMatrix;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class MovieServiceImpl implements MovieService {
 
     private final MovieRepository movieRepository;
+    private final MovieSearchIndex movieSearchIndex;
+    private final TopRatedRanking topRatedRanking;
+    private final TrendingMovies trendingMovies;
+    private final MovieVersions movieVersions;
+    private final ResponseCache responseCache;
+    private final SimilarMovies similarMovies;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public MovieServiceImpl(MovieRepository movieRepository) {
+    public MovieServiceImpl(MovieRepository movieRepository, MovieSearchIndex movieSearchIndex,
+                            TopRatedRanking topRatedRanking, TrendingMovies trendingMovies,
+                            MovieVersions movieVersions, ResponseCache responseCache, SimilarMovies similarMovies,
+                            PlatformTransactionManager transactionManager) {
         this.movieRepository = movieRepository;
+        this.movieSearchIndex = movieSearchIndex;
+        this.topRatedRanking = topRatedRanking;
+        this.trendingMovies = trendingMovies;
+        this.movieVersions = movieVersions;
+        this.responseCache = responseCache;
+        this.similarMovies = similarMovies;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
-    public List<Movie> getAllMovies() {
-        return movieRepository.findAll();
+    public List<MovieCard> getAllMovies() {
+        return movieRepository.findAllCards();
+    }
+
+    // In the order asked for; unknown ids are left out
+    @Override
+    public List<MovieCard> getMoviesByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, MovieCard> cards = movieRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(MovieCard::id, Function.identity()));
+        return ids.stream().distinct().map(cards::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public CursorPage<MovieCard> getMoviesPage(PageCursor after, int limit) {
+        int overfetch = limit + 1;
+        List<MovieCard> rows = after == null
+                ? movieRepository.findFirstPage(overfetch)
+                : movieRepository.findPageAfter(after.id(), overfetch);
+        return CursorPage.fromOverfetch(rows, limit, movie -> PageCursor.ofId(movie.id()));
     }
 
     @Override
@@ -28,21 +86,100 @@ public class MovieServiceImpl implements MovieService {
         return movieRepository.findById(id);
     }
 
+    @Override
+    public Optional<Movie> getMovieAtVersion(Long id, long version) {
+        return movieRepository.findByIdAtVersion(id, version);
+    }
+
     @Override
     public Movie saveMovie(Movie movie) {
-        return movieRepository.save(movie);
+        Movie savedMovie = transactionTemplate.execute(status -> {
+            Movie saved = movieRepository.saveAndFlush(movie);
+            movieRepository.lockRating(saved.getId()).ifPresent(this::rerankAfterCommit);
+            return saved;
+        });
+        movieSearchIndex.index(savedMovie.getId(), savedMovie.getTitle(), savedMovie.getDescription());
+        movieVersions.advance(savedMovie.getId(), savedMovie.getVersion());
+        responseCache.invalidateMovie(savedMovie.getId());
+        return savedMovie;
+    }
+
+    @Override
+    public Optional<Movie> updateMovieDetails(Long id, String title, String imageUrl, String description) {
+        boolean found = transactionTemplate.execute(status -> {
+            Optional<MovieRating> rating = movieRepository.updateDetails(id, title, imageUrl, description);
+            rating.ifPresent(this::rerankAfterCommit);
+            return rating.isPresent();
+        });
+        if (!found) {
+            return Optional.empty();
+        }
+        // The version was published on commit; loading at it skips a cached copy from before the update
+        Optional<Movie> updated = movieRepository.findByIdAtVersion(id, movieVersions.get(id).version());
+        updated.ifPresent(movie -> {
+            movieSearchIndex.index(movie.getId(), movie.getTitle(), movie.getDescription());
+            responseCache.invalidateMovie(movie.getId());
+        });
+        return updated;
+    }
+
+    // Ranks the aggregates read under the row lock, which are exactly what commits, and only once they have committed:
+    // in the same order as review writes, so a review committed meanwhile is never overwritten with older aggregates
+    private void rerankAfterCommit(MovieRating movie) {
+        TransactionCallbacks.afterCommit(Ordered.HIGHEST_PRECEDENCE, () -> topRatedRanking.update(movie.id(),
+                movie.title(), movie.imageUrl(), movie.ratingSum(), movie.reviewCount()));
     }
 
     @Override
     public void deleteMovie(Long id) {
         movieRepository.deleteById(id);
+        movieSearchIndex.remove(id);
+        topRatedRanking.remove(id);
+        trendingMovies.remove(id);
+        movieVersions.remove(id);
+        responseCache.invalidateMovie(id);
     }
 
     @Override
-    public List<Movie> searchMovies(String keyword) {
+    public List<RankedMovie> getTopRatedMovies(int limit) {
+        return topRatedRanking.top(limit);
+    }
+
+    @Override
+    public List<TrendingMovie> getTrendingMovies(int limit) {
+        return trendingMovies.trending(limit);
+    }
+
+    // Neighbors from the in-memory similarity snapshot, with the current cards; movies deleted since the snapshot
+    // was built are left out
+    @Override
+    public List<SimilarMovie> getSimilarMovies(Long id, int limit) {
+        List<SimilarityMatrix.Neighbor> neighbors = similarMovies.similarTo(id, limit);
+        Map<Long, MovieCard> cards = getMoviesByIds(neighbors.stream().map(SimilarityMatrix.Neighbor::movieId).toList())
+                .stream()
+                .collect(Collectors.toMap(MovieCard::id, Function.identity()));
+        return neighbors.stream()
+                .filter(neighbor -> cards.containsKey(neighbor.movieId()))
+                .map(neighbor -> {
+                    MovieCard card = cards.get(neighbor.movieId());
+                    return new SimilarMovie(card.id(), card.title(), card.imageUrl(), card.averageRating(),
+                            neighbor.similarity());
+                })
+                .toList();
+    }
+
+    @Override
+    public List<MovieCard> searchMovies(String keyword, int limit) {
         if (keyword == null || keyword.trim().isEmpty()) {
-            return movieRepository.findAll();
+            return movieRepository.findFirstPage(limit);
+        }
+        List<Long> rankedIds = movieSearchIndex.search(keyword, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
         }
-        return movieRepository.findByTitleContainingIgnoreCase(keyword.trim());
+        // The index only ranks ids; fetch the current cards and restore the ranking order
+        Map<Long, MovieCard> cards = movieRepository.findCardsByIdIn(rankedIds).stream()
+                .collect(Collectors.toMap(MovieCard::id, Function.identity()));
+        return rankedIds.stream().map(cards::get).filter(Objects::nonNull).toList();
     }
 } 
\ No newline at end of file
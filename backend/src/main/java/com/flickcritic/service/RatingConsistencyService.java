@@ -0,0 +1,7 @@
+package com.flickcritic.service;
+
+import com.flickcritic.dto.RatingConsistencyReport;
+
+public interface RatingConsistencyService {
+    RatingConsistencyReport check(boolean repair);
+}
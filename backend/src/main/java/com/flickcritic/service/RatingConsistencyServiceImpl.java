@@ -0,0 +1,93 @@
+package com.flickcritic.service;
+
+import com.flickcritic.dto.RatingConsistencyReport;
+import com.flickcritic.dto.StoredRatings;
+import com.flickcritic.model.RatingHistogram;
+import com.flickcritic.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Compares every movie's stored histogram and aggregates against the reviews table, one keyset batch at a time,
+// and recounts the movies that drifted
+@Service
+public class RatingConsistencyServiceImpl implements RatingConsistencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingConsistencyServiceImpl.class);
+
+    private static final int BATCH_SIZE = 500;
+    // Cap on how many drifted ids a report lists
+    private static final int MAX_REPORTED_IDS = 50;
+
+    private final MovieRepository movieRepository;
+    private final ReviewService reviewService;
+
+    @Autowired
+    public RatingConsistencyServiceImpl(MovieRepository movieRepository, ReviewService reviewService) {
+        this.movieRepository = movieRepository;
+        this.reviewService = reviewService;
+    }
+
+    @Scheduled(cron = "${flickcritic.ratings.consistency-check.cron:-}")
+    public void scheduledCheck() {
+        check(true);
+    }
+
+    @Override
+    public RatingConsistencyReport check(boolean repair) {
+        long start = System.nanoTime();
+        int checked = 0;
+        int drifted = 0;
+        List<Long> reportedIds = new ArrayList<>();
+        Long afterId = 0L;
+        List<StoredRatings> batch;
+        do {
+            batch = movieRepository.findStoredRatingsPageAfter(afterId, BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<Long, RatingHistogram> counted = reviewService.countRatings(
+                    batch.stream().map(StoredRatings::movieId).toList());
+            List<Long> driftedIds = new ArrayList<>();
+            for (StoredRatings stored : batch) {
+                RatingHistogram actual = counted.getOrDefault(stored.movieId(), new RatingHistogram());
+                if (!matches(stored, actual)) {
+                    driftedIds.add(stored.movieId());
+                }
+            }
+            // Each batch is repaired in its own transaction
+            if (repair && !driftedIds.isEmpty()) {
+                reviewService.recomputeRatingAggregates(driftedIds);
+            }
+            checked += batch.size();
+            drifted += driftedIds.size();
+            for (Long id : driftedIds) {
+                if (reportedIds.size() < MAX_REPORTED_IDS) {
+                    reportedIds.add(id);
+                }
+            }
+            afterId = batch.get(batch.size() - 1).movieId();
+        } while (batch.size() == BATCH_SIZE);
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (drifted > 0) {
+            log.warn("Rating consistency check found {} of {} movies drifted{} in {} ms",
+                    drifted, checked, repair ? " and repaired them" : "", millis);
+        } else {
+            log.info("Rating consistency check found all {} movies consistent in {} ms", checked, millis);
+        }
+        return new RatingConsistencyReport(checked, drifted, repair && drifted > 0, reportedIds);
+    }
+
+    private static boolean matches(StoredRatings stored, RatingHistogram actual) {
+        return stored.histogram().sameCounts(actual)
+                && stored.reviewCount() == actual.total()
+                && stored.ratingSum() == actual.ratingSum();
+    }
+}
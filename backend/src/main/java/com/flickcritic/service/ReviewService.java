@@ -1,15 +1,30 @@
 package com.flickcritic.service;
 
+import com.flickcritic.dto.ReviewView;
+import com.flickcritic.model.RatingHistogram;
 import com.flickcritic.model.Review;
+import com.flickcritic.pagination.CursorPage;
+import com.flickcritic.pagination.PageCursor;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ReviewService {
-    List<Review> getAllReviews();
+    List<ReviewView> getAllReviews();
     Optional<Review> getReviewById(Long id);
     Review saveReview(Review review);
+    List<Review> createReviews(List<ReviewView> reviews);
+    boolean referencesExist(Long movieId, Long userId);
+    boolean hasReviewed(Long movieId, Long userId);
     void deleteReview(Long id);
-    List<Review> getReviewsByMovieId(Long movieId);
-    List<Review> getReviewsByUserId(Long userId);
+    List<ReviewView> getReviewsByMovieId(Long movieId);
+    List<ReviewView> getReviewsByUserId(Long userId);
+    CursorPage<ReviewView> getReviewsPage(PageCursor after, int limit);
+    CursorPage<ReviewView> getReviewsByMovieIdPage(Long movieId, PageCursor after, int limit);
+    CursorPage<ReviewView> getReviewsByUserIdPage(Long userId, PageCursor after, int limit);
+    void deleteReviewsByUser(Long userId);
+    void recomputeRatingAggregates(Collection<Long> movieIds);
+    Map<Long, RatingHistogram> countRatings(Collection<Long> movieIds);
 } 
\ No newline at end of file
@@ -1,31 +1,64 @@
 package com.flickcritic.service;
 
-import com.flickcritic.model.Movie;
+import com.flickcritic.dto.DatedRating;
+import com.flickcritic.dto.MovieRating;
+import com.flickcritic.dto.RatingBucket;
+import com.flickcritic.dto.ReviewView;
+import com.flickcritic.model.RatingHistogram;
 import com.flickcritic.model.Review;
+import com.flickcritic.pagination.CursorPage;
+import com.flickcritic.pagination.PageCursor;
+import com.flickcritic.ranking.TopRatedRanking;
+import com.flickcritic.ranking.TrendingMovies;
 import com.flickcritic.repository.MovieRepository;
 import com.flickcritic.repository.ReviewRepository;
+import com.flickcritic.repository.UserRepository;
+import com.flickcritic.responsecache.ResponseCache;
+import com.flickcritic.stream.ReviewStreamHub;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 public class ReviewServiceImpl implements ReviewService {
 
+    private static final int RECOMPUTE_BATCH_SIZE = 500;
+
     private final ReviewRepository reviewRepository;
     private final MovieRepository movieRepository;
+    private final UserRepository userRepository;
+    private final TopRatedRanking topRatedRanking;
+    private final TrendingMovies trendingMovies;
+    private final ResponseCache responseCache;
+    private final ReviewStreamHub reviewStreamHub;
 
     @Autowired
-    public ReviewServiceImpl(ReviewRepository reviewRepository, MovieRepository movieRepository) {
+    public ReviewServiceImpl(ReviewRepository reviewRepository, MovieRepository movieRepository,
+                             UserRepository userRepository, TopRatedRanking topRatedRanking,
+                             TrendingMovies trendingMovies, ResponseCache responseCache,
+                             ReviewStreamHub reviewStreamHub) {
         this.reviewRepository = reviewRepository;
         this.movieRepository = movieRepository;
+        this.userRepository = userRepository;
+        this.topRatedRanking = topRatedRanking;
+        this.trendingMovies = trendingMovies;
+        this.responseCache = responseCache;
+        this.reviewStreamHub = reviewStreamHub;
     }
 
     @Override
-    public List<Review> getAllReviews() {
-        return reviewRepository.findAll();
+    public List<ReviewView> getAllReviews() {
+        return reviewRepository.findAllViews();
     }
 
     @Override
@@ -36,53 +69,227 @@ public class ReviewServiceImpl implements ReviewService {
     @Override
     @Transactional
     public Review saveReview(Review review) {
-        Review savedReview = reviewRepository.save(review);
-        
-        // Update the movie's average rating
-        Movie movie = review.getMovie();
-        if (movie != null) {
-            Optional<Movie> movieOpt = movieRepository.findById(movie.getId());
-            if (movieOpt.isPresent()) {
-                Movie updatedMovie = movieOpt.get();
-                updatedMovie.calculateAverageRating();
-                movieRepository.save(updatedMovie);
+        // Capture the previous rating so an edit only applies its delta
+        Long previousMovieId = null;
+        Integer previousRating = null;
+        LocalDate previousDate = null;
+        if (review.getId() != null) {
+            Optional<Review> existingOpt = reviewRepository.findById(review.getId());
+            if (existingOpt.isPresent()) {
+                Review existing = existingOpt.get();
+                previousMovieId = existing.getMovie() != null ? existing.getMovie().getId() : null;
+                previousRating = existing.getRating();
+                previousDate = existing.getDate();
+            }
+        }
+
+        // Request bodies carry only the movie and user ids; bind them as references rather than merging detached copies
+        if (review.getMovie() != null && review.getMovie().getId() != null) {
+            review.setMovie(movieRepository.getReferenceById(review.getMovie().getId()));
+        }
+        if (review.getUser() != null && review.getUser().getId() != null) {
+            review.setUser(userRepository.getReferenceById(review.getUser().getId()));
+        }
+
+        // Write the review first, so the movie row is locked only for the increment and the commit
+        Review savedReview = reviewRepository.saveAndFlush(review);
+
+        // Update the movie's rating aggregates
+        Long movieId = review.getMovie() != null ? review.getMovie().getId() : null;
+        if (previousRating != null && previousMovieId != null && previousMovieId.equals(movieId)) {
+            RatingHistogram delta = new RatingHistogram();
+            delta.add(previousRating, -1);
+            delta.add(review.getRating(), 1);
+            updateMovieRating(movieId, delta);
+        } else {
+            if (previousRating != null) {
+                updateMovieRating(previousMovieId, RatingHistogram.of(previousRating, -1));
             }
+            updateMovieRating(movieId, RatingHistogram.of(review.getRating(), 1));
+        }
+
+        // An edit takes the review out of the trend at its old date and rating and puts it back at the new ones
+        if (previousRating != null) {
+            trendAfterCommit(List.of(new DatedRating(previousMovieId, previousRating, previousDate)), -1);
         }
-        
+        trendAfterCommit(List.of(new DatedRating(movieId, review.getRating(), review.getDate())), 1);
+        publishAfterCommit(ReviewStreamHub.REVIEW_EVENT, List.of(ReviewView.from(savedReview)));
         return savedReview;
     }
 
+    @Override
+    @Transactional
+    public List<Review> createReviews(List<ReviewView> reviews) {
+        List<Review> entities = new ArrayList<>(reviews.size());
+        // Sorted, so concurrent multi-movie transactions lock movie rows in the same order
+        Map<Long, RatingHistogram> ratingsByMovie = new TreeMap<>();
+        List<DatedRating> trend = new ArrayList<>(reviews.size());
+        for (ReviewView view : reviews) {
+            Review entity = new Review(null, movieRepository.getReferenceById(view.movieId()),
+                    userRepository.getReferenceById(view.userId()), view.username(), view.rating(),
+                    view.comment(), view.date());
+            entities.add(entity);
+            trend.add(new DatedRating(view.movieId(), view.rating(), entity.getDate()));
+            ratingsByMovie.computeIfAbsent(view.movieId(), id -> new RatingHistogram()).add(view.rating(), 1);
+        }
+        List<Review> saved = reviewRepository.saveAll(entities);
+        reviewRepository.flush();
+
+        // One aggregate update per movie for the whole batch
+        ratingsByMovie.forEach(this::updateMovieRating);
+        trendAfterCommit(trend, 1);
+        publishAfterCommit(ReviewStreamHub.REVIEW_EVENT, saved.stream().map(ReviewView::from).toList());
+        return saved;
+    }
+
+    @Override
+    public boolean referencesExist(Long movieId, Long userId) {
+        // Both lookups are usually served by the second-level cache
+        return movieId != null && userId != null
+                && movieRepository.findById(movieId).isPresent()
+                && userRepository.findById(userId).isPresent();
+    }
+
+    @Override
+    public boolean hasReviewed(Long movieId, Long userId) {
+        return movieId != null && userId != null && reviewRepository.existsByMovieIdAndUserId(movieId, userId);
+    }
+
     @Override
     @Transactional
     public void deleteReview(Long id) {
         Optional<Review> reviewOpt = reviewRepository.findById(id);
         if (reviewOpt.isPresent()) {
             Review review = reviewOpt.get();
-            Movie movie = review.getMovie();
-            
+            Long movieId = review.getMovie() != null ? review.getMovie().getId() : null;
+            int rating = review.getRating();
+
             reviewRepository.deleteById(id);
-            
-            // Update the movie's average rating after deletion
-            if (movie != null) {
-                Optional<Movie> movieOpt = movieRepository.findById(movie.getId());
-                if (movieOpt.isPresent()) {
-                    Movie updatedMovie = movieOpt.get();
-                    updatedMovie.calculateAverageRating();
-                    movieRepository.save(updatedMovie);
-                }
-            }
+            reviewRepository.flush();
+
+            // Update the movie's rating aggregates after deletion
+            updateMovieRating(movieId, RatingHistogram.of(rating, -1));
+            trendAfterCommit(List.of(new DatedRating(movieId, rating, review.getDate())), -1);
+            publishAfterCommit(ReviewStreamHub.REVIEW_DELETED_EVENT, List.of(ReviewView.from(review)));
         } else {
             reviewRepository.deleteById(id);
         }
     }
 
     @Override
-    public List<Review> getReviewsByMovieId(Long movieId) {
-        return reviewRepository.findByMovieId(movieId);
+    public List<ReviewView> getReviewsByMovieId(Long movieId) {
+        return reviewRepository.findViewsByMovieId(movieId);
+    }
+
+    @Override
+    public List<ReviewView> getReviewsByUserId(Long userId) {
+        return reviewRepository.findViewsByUserId(userId);
+    }
+
+    @Override
+    public CursorPage<ReviewView> getReviewsPage(PageCursor after, int limit) {
+        int overfetch = limit + 1;
+        List<ReviewView> rows = after == null
+                ? reviewRepository.findFirstPage(overfetch)
+                : reviewRepository.findPageBefore(after.date(), after.id(), overfetch);
+        return toPage(rows, limit);
     }
 
     @Override
-    public List<Review> getReviewsByUserId(Long userId) {
-        return reviewRepository.findByUserId(userId);
+    public CursorPage<ReviewView> getReviewsByMovieIdPage(Long movieId, PageCursor after, int limit) {
+        int overfetch = limit + 1;
+        List<ReviewView> rows = after == null
+                ? reviewRepository.findFirstPageByMovieId(movieId, overfetch)
+                : reviewRepository.findPageByMovieIdBefore(movieId, after.date(), after.id(), overfetch);
+        return toPage(rows, limit);
+    }
+
+    @Override
+    public CursorPage<ReviewView> getReviewsByUserIdPage(Long userId, PageCursor after, int limit) {
+        int overfetch = limit + 1;
+        List<ReviewView> rows = after == null
+                ? reviewRepository.findFirstPageByUserId(userId, overfetch)
+                : reviewRepository.findPageByUserIdBefore(userId, after.date(), after.id(), overfetch);
+        return toPage(rows, limit);
+    }
+
+    @Override
+    @Transactional
+    public void deleteReviewsByUser(Long userId) {
+        Map<Long, RatingHistogram> removed = new TreeMap<>();
+        for (RatingBucket bucket : reviewRepository.findRatingBucketsByUserId(userId)) {
+            removed.computeIfAbsent(bucket.movieId(), id -> new RatingHistogram())
+                    .add(bucket.rating(), -bucket.reviewCount().intValue());
+        }
+        List<DatedRating> recent = reviewRepository.findDatedRatingsByUserIdSince(userId,
+                trendingMovies.windowStart());
+        reviewRepository.deleteByUserId(userId);
+        removed.forEach(this::updateMovieRating);
+        trendAfterCommit(recent, -1);
+    }
+
+    @Override
+    @Transactional
+    public void recomputeRatingAggregates(Collection<Long> movieIds) {
+        List<Long> ids = new ArrayList<>(movieIds);
+        for (int from = 0; from < ids.size(); from += RECOMPUTE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + RECOMPUTE_BATCH_SIZE, ids.size()));
+            // Lock before counting: a review write that commits after the count would otherwise be overwritten
+            movieRepository.lockForRecount(batch);
+            Map<Long, RatingHistogram> histograms = countRatings(batch);
+            for (Long movieId : batch) {
+                movieRepository.resetRatings(movieId, histograms.getOrDefault(movieId, new RatingHistogram()))
+                        .ifPresent(this::rerankAfterCommit);
+            }
+        }
+    }
+
+    @Override
+    public Map<Long, RatingHistogram> countRatings(Collection<Long> movieIds) {
+        Map<Long, RatingHistogram> histograms = new HashMap<>();
+        for (RatingBucket bucket : reviewRepository.findRatingBucketsByMovieIds(movieIds)) {
+            histograms.computeIfAbsent(bucket.movieId(), id -> new RatingHistogram())
+                    .add(bucket.rating(), bucket.reviewCount().intValue());
+        }
+        return histograms;
+    }
+
+    private CursorPage<ReviewView> toPage(List<ReviewView> rows, int limit) {
+        return CursorPage.fromOverfetch(rows, limit, review -> PageCursor.of(review.date(), review.id()));
+    }
+
+    private void updateMovieRating(Long movieId, RatingHistogram delta) {
+        if (movieId == null) {
+            return;
+        }
+        movieRepository.incrementRatings(movieId, delta).ifPresent(this::rerankAfterCommit);
+    }
+
+    // The in-memory ranking and the response cache only see aggregates that actually committed
+    private void rerankAfterCommit(MovieRating movie) {
+        // Ahead of publishing the movie's new version, so no client sees that version with the old ranking
+        TransactionCallbacks.afterCommit(Ordered.HIGHEST_PRECEDENCE, () -> {
+            topRatedRanking.update(movie.id(), movie.title(), movie.imageUrl(), movie.ratingSum(),
+                    movie.reviewCount());
+            responseCache.invalidateMovie(movie.id());
+        });
+    }
+
+    // After the ranking, whose entries give trending movies their titles
+    private void trendAfterCommit(List<DatedRating> ratings, int count) {
+        TransactionCallbacks.afterCommit(Ordered.LOWEST_PRECEDENCE, () -> {
+            for (DatedRating rating : ratings) {
+                trendingMovies.record(rating.movieId(), rating.date(), rating.rating(), count);
+            }
+        });
+    }
+
+    // Last, once the movie's new version is published, so a client reloading on an event sees the change
+    private void publishAfterCommit(String event, List<ReviewView> reviews) {
+        TransactionCallbacks.afterCommit(Ordered.LOWEST_PRECEDENCE, () -> {
+            for (ReviewView review : reviews) {
+                reviewStreamHub.publish(event, review);
+            }
+        });
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.flickcritic.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    // Runs the action once the current transaction commits, among other callbacks by order; right away outside one
+    static void afterCommit(int order, Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+
+                @Override
+                public int getOrder() {
+                    return order;
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package com.flickcritic.service;
 
+import com.flickcritic.dto.UserSummary;
 import com.flickcritic.model.User;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface UserService {
-    List<User> getAllUsers();
+    List<UserSummary> getAllUsers();
     Optional<User> getUserById(Long id);
     Optional<User> getUserByEmail(String email);
     User saveUser(User user);
+    Optional<User> updateUser(Long id, User changes);
+    Optional<User> authenticate(String email, String password);
     boolean deleteUser(Long id);
     boolean existsByEmail(String email);
 } 
\ No newline at end of file
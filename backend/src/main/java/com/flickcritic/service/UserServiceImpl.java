@@ -1,9 +1,15 @@
 package com.flickcritic.service;
 
+import com.flickcritic.auth.PasswordHasher;
+import com.flickcritic.auth.SessionStore;
+import com.flickcritic.dto.UserSummary;
 import com.flickcritic.model.User;
 import com.flickcritic.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,15 +18,25 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ReviewService reviewService;
+    private final PasswordHasher passwordHasher;
+    private final SessionStore sessionStore;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, ReviewService reviewService,
+                           PasswordHasher passwordHasher, SessionStore sessionStore,
+                           PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.reviewService = reviewService;
+        this.passwordHasher = passwordHasher;
+        this.sessionStore = sessionStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserSummary> getAllUsers() {
+        return userRepository.findAllSummaries();
     }
 
     @Override
@@ -35,13 +51,68 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User saveUser(User user) {
+        user.setPassword(passwordHasher.hash(user.getPassword()));
         return userRepository.save(user);
     }
 
+    // The password is checked and hashed before the transaction, so no connection is held while bcrypt runs
     @Override
+    public Optional<User> updateUser(Long id, User changes) {
+        Optional<User> current = userRepository.findById(id);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        boolean passwordChanged = !passwordHasher.matches(changes.getPassword(), current.get().getPassword());
+        String newHash = passwordChanged ? passwordHasher.hash(changes.getPassword()) : null;
+
+        // Copied onto the loaded user: merging the request body would orphan-remove every review
+        Optional<User> updated = transactionTemplate.execute(status -> userRepository.findById(id).map(user -> {
+            user.setName(changes.getName());
+            user.setEmail(changes.getEmail());
+            user.setRole(changes.getRole());
+            if (newHash != null) {
+                user.setPassword(newHash);
+            }
+            return user;
+        }));
+        updated.ifPresent(user -> {
+            if (passwordChanged) {
+                sessionStore.invalidateUser(id);
+            } else {
+                sessionStore.refreshUser(UserSummary.from(user));
+            }
+        });
+        return updated;
+    }
+
+    // Not transactional: no connection is held while the hash is checked
+    @Override
+    public Optional<User> authenticate(String email, String password) {
+        Optional<User> found = userRepository.findByEmail(email);
+        if (found.isEmpty()) {
+            passwordHasher.matchUnknownUser(password);
+            return Optional.empty();
+        }
+        User user = found.get();
+        if (!passwordHasher.matches(password, user.getPassword())) {
+            return Optional.empty();
+        }
+        // Stored in plaintext before hashing, or hashed at a lower strength than now configured
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHasher.hash(password));
+            user = userRepository.save(user);
+        }
+        return Optional.of(user);
+    }
+
+    @Override
+    @Transactional
     public boolean deleteUser(Long id) {
         if (userRepository.existsById(id)) {
+            // Through the review service, so the reviewed movies' aggregates and versions follow
+            reviewService.deleteReviewsByUser(id);
             userRepository.deleteById(id);
+            sessionStore.invalidateUser(id);
             return true;
         }
         return false;
@@ -0,0 +1,68 @@
+package com.flickcritic.similar;
+
+import java.util.Arrays;
+
+// (user, movie, rating) rows of the reviews table in growable primitive arrays, the input of a similarity build
+public final class RatingTriples {
+
+    private long[] userIds;
+    private long[] movieIds;
+    private byte[] ratings;
+    private int size;
+
+    public RatingTriples(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        userIds = new long[capacity];
+        movieIds = new long[capacity];
+        ratings = new byte[capacity];
+    }
+
+    public void add(long userId, long movieId, int rating) {
+        if (size == userIds.length) {
+            int capacity = size + (size >> 1);
+            userIds = Arrays.copyOf(userIds, capacity);
+            movieIds = Arrays.copyOf(movieIds, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+        }
+        userIds[size] = userId;
+        movieIds[size] = movieId;
+        ratings[size] = (byte) rating;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    long userId(int row) {
+        return userIds[row];
+    }
+
+    long movieId(int row) {
+        return movieIds[row];
+    }
+
+    int rating(int row) {
+        return ratings[row];
+    }
+
+    long[] distinctUserIds() {
+        return distinctSorted(userIds);
+    }
+
+    long[] distinctMovieIds() {
+        return distinctSorted(movieIds);
+    }
+
+    private long[] distinctSorted(long[] ids) {
+        long[] sorted = Arrays.copyOf(ids, size);
+        Arrays.parallelSort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+}
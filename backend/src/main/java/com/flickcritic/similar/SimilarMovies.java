@@ -0,0 +1,116 @@
+package com.flickcritic.similar;
+
+import com.flickcritic.conditional.MovieVersions;
+import com.flickcritic.config.SampleDataLoadedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// "Similar movies" served from an immutable SimilarityMatrix snapshot, swapped in whole when a rebuild finishes, so
+// lookups never lock or see a half-built matrix. Rebuilds read every review once and run in the background on the
+// scheduler thread: after startup and background seeding, then periodically, but only if a review or movie has
+// changed since the data of the current snapshot was read.
+@Component
+public class SimilarMovies implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarMovies.class);
+
+    private static final String SELECT_RATINGS = "select user_id, movie_id, rating from reviews";
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MovieVersions movieVersions;
+    private final TaskScheduler taskScheduler;
+    private final SimilarityProperties properties;
+    private final ForkJoinPool pool;
+    private final Timer buildTimer;
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    private volatile SimilarityMatrix matrix = SimilarityMatrix.EMPTY;
+    // Catalog change time the current snapshot was read at
+    private volatile Instant builtFrom;
+
+    @Autowired
+    public SimilarMovies(JdbcTemplate jdbcTemplate, MovieVersions movieVersions, TaskScheduler taskScheduler,
+                         SimilarityProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.movieVersions = movieVersions;
+        this.taskScheduler = taskScheduler;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.getThreads());
+        this.buildTimer = meterRegistry.timer("flickcritic.similar.build");
+        Gauge.builder("flickcritic.similar.pairs", this, similar -> similar.matrix.pairCount()).register(meterRegistry);
+        Gauge.builder("flickcritic.similar.size", this, similar -> similar.matrix.sizeInBytes())
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    // Off the startup path; until the first build finishes every movie has no similar movies
+    @EventListener({ApplicationReadyEvent.class, SampleDataLoadedEvent.class})
+    public void scheduleRebuild() {
+        taskScheduler.schedule(this::rebuildIfStale, Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${flickcritic.similar.refresh-interval:300000}",
+            initialDelayString = "${flickcritic.similar.refresh-interval:300000}")
+    public void rebuildIfStale() {
+        Instant changedAt = movieVersions.getCatalogLastModified();
+        if (!changedAt.equals(builtFrom)) {
+            rebuild(changedAt);
+        }
+    }
+
+    public List<SimilarityMatrix.Neighbor> similarTo(long movieId, int limit) {
+        return matrix.neighborsOf(movieId, limit);
+    }
+
+    private void rebuild(Instant changedAt) {
+        if (!building.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            RatingTriples ratings = new RatingTriples(matrix.reviewCount());
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_RATINGS);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) row -> ratings.add(row.getLong(1), row.getLong(2), row.getInt(3)));
+            long loaded = System.nanoTime();
+            SimilarityMatrix built = SimilarityMatrix.build(ratings, properties, pool);
+            long finished = System.nanoTime();
+            matrix = built;
+            builtFrom = changedAt;
+            buildTimer.record(finished - start, TimeUnit.NANOSECONDS);
+            log.info("Built similar movies from {} reviews by {} users: {} pairs over {} movies, {} MB, "
+                            + "in {} ms (read {} ms, compute {} ms)",
+                    built.reviewCount(), built.userCount(), built.pairCount(), built.movieCount(),
+                    built.sizeInBytes() >> 20, (finished - start) / 1_000_000, (loaded - start) / 1_000_000,
+                    (finished - loaded) / 1_000_000);
+        } finally {
+            building.set(false);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,313 @@
+package com.flickcritic.similar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Immutable item-to-item similarity: for every movie, its most similar movies by adjusted cosine over the users who
+// rated both. Ratings are centred on each user's mean first, so a harsh and a generous critic who agree on the
+// ordering of two movies count as agreeing. The score is damped for pairs with few co-raters.
+//
+// Everything is kept in primitive arrays indexed by a dense movie index (the position of the movie id in the sorted
+// movieIds): the neighbors of movie k are neighbors/scores[offsets[k] .. offsets[k + 1]), best first.
+public final class SimilarityMatrix {
+
+    public static final SimilarityMatrix EMPTY =
+            new SimilarityMatrix(new long[0], new int[1], new int[0], new float[0], 0, 0);
+
+    // Movies per fork/join leaf task
+    private static final int LEAF_MOVIES = 32;
+
+    private final long[] movieIds;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final float[] scores;
+    private final int reviewCount;
+    private final int userCount;
+
+    private SimilarityMatrix(long[] movieIds, int[] offsets, int[] neighbors, float[] scores, int reviewCount,
+                             int userCount) {
+        this.movieIds = movieIds;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.scores = scores;
+        this.reviewCount = reviewCount;
+        this.userCount = userCount;
+    }
+
+    public static SimilarityMatrix build(RatingTriples ratings, SimilarityProperties properties, ForkJoinPool pool) {
+        if (ratings.size() == 0) {
+            return EMPTY;
+        }
+        return new Builder(ratings, properties).build(pool);
+    }
+
+    // Best first; empty for a movie without similar movies or not known to this snapshot
+    public List<Neighbor> neighborsOf(long movieId, int limit) {
+        int movie = Arrays.binarySearch(movieIds, movieId);
+        if (movie < 0) {
+            return List.of();
+        }
+        int from = offsets[movie];
+        int to = Math.min(offsets[movie + 1], from + limit);
+        List<Neighbor> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            result.add(new Neighbor(movieIds[neighbors[i]], scores[i]));
+        }
+        return result;
+    }
+
+    public int movieCount() {
+        return movieIds.length;
+    }
+
+    public int pairCount() {
+        return neighbors.length;
+    }
+
+    public int reviewCount() {
+        return reviewCount;
+    }
+
+    public int userCount() {
+        return userCount;
+    }
+
+    // Heap held by the snapshot's arrays
+    public long sizeInBytes() {
+        return 8L * movieIds.length + 4L * offsets.length + 4L * neighbors.length + 4L * scores.length;
+    }
+
+    public record Neighbor(long movieId, double similarity) {
+    }
+
+    // Transient state of one build: the ratings as two compressed sparse matrices, by user and by movie
+    private static final class Builder {
+
+        private final SimilarityProperties properties;
+        private final int maxNeighbors;
+        private final int reviewCount;
+        private final long[] movieIds;
+        private final int movieCount;
+        private final int userCount;
+
+        // By user (active users only): the movies they rated and their centred ratings
+        private final int[] userStart;
+        private final int[] userMovies;
+        private final float[] userValues;
+        // By movie: the active users who rated it and their centred ratings, and the norm of that vector
+        private final int[] movieStart;
+        private final int[] movieUsers;
+        private final float[] movieValues;
+        private final float[] norms;
+
+        // Fixed stride of maxNeighbors per movie until compacted
+        private final int[] neighborCounts;
+        private final int[] strideNeighbors;
+        private final float[] strideScores;
+
+        private final ThreadLocal<Accumulator> accumulators;
+
+        Builder(RatingTriples ratings, SimilarityProperties properties) {
+            this.properties = properties;
+            this.maxNeighbors = properties.getNeighbors();
+            this.reviewCount = ratings.size();
+            int rows = ratings.size();
+            movieIds = ratings.distinctMovieIds();
+            long[] userIds = ratings.distinctUserIds();
+            movieCount = movieIds.length;
+            userCount = userIds.length;
+
+            int[] movieOf = new int[rows];
+            int[] userOf = new int[rows];
+            int[] userDegree = new int[userCount];
+            double[] userSum = new double[userCount];
+            for (int row = 0; row < rows; row++) {
+                movieOf[row] = Arrays.binarySearch(movieIds, ratings.movieId(row));
+                int user = Arrays.binarySearch(userIds, ratings.userId(row));
+                userOf[row] = user;
+                userDegree[user]++;
+                userSum[user] += ratings.rating(row);
+            }
+
+            // A single rating centres to zero, and very prolific users cost quadratically; both are left out
+            boolean[] active = new boolean[userCount];
+            float[] userMean = new float[userCount];
+            userStart = new int[userCount + 1];
+            for (int user = 0; user < userCount; user++) {
+                active[user] = userDegree[user] >= 2 && userDegree[user] <= properties.getMaxUserReviews();
+                userMean[user] = (float) (userSum[user] / userDegree[user]);
+                userStart[user + 1] = userStart[user] + (active[user] ? userDegree[user] : 0);
+            }
+            int entries = userStart[userCount];
+            userMovies = new int[entries];
+            userValues = new float[entries];
+            movieStart = new int[movieCount + 1];
+            int[] userFill = Arrays.copyOf(userStart, userCount);
+            for (int row = 0; row < rows; row++) {
+                int user = userOf[row];
+                if (active[user]) {
+                    int at = userFill[user]++;
+                    userMovies[at] = movieOf[row];
+                    userValues[at] = ratings.rating(row) - userMean[user];
+                    movieStart[movieOf[row] + 1]++;
+                }
+            }
+
+            for (int movie = 0; movie < movieCount; movie++) {
+                movieStart[movie + 1] += movieStart[movie];
+            }
+            movieUsers = new int[entries];
+            movieValues = new float[entries];
+            int[] movieFill = Arrays.copyOf(movieStart, movieCount);
+            double[] squares = new double[movieCount];
+            for (int user = 0; user < userCount; user++) {
+                for (int at = userStart[user]; at < userStart[user + 1]; at++) {
+                    int movie = userMovies[at];
+                    int to = movieFill[movie]++;
+                    movieUsers[to] = user;
+                    movieValues[to] = userValues[at];
+                    squares[movie] += (double) userValues[at] * userValues[at];
+                }
+            }
+            norms = new float[movieCount];
+            for (int movie = 0; movie < movieCount; movie++) {
+                norms[movie] = (float) Math.sqrt(squares[movie]);
+            }
+
+            neighborCounts = new int[movieCount];
+            strideNeighbors = new int[movieCount * maxNeighbors];
+            strideScores = new float[movieCount * maxNeighbors];
+            accumulators = ThreadLocal.withInitial(() -> new Accumulator(movieCount, maxNeighbors));
+        }
+
+        SimilarityMatrix build(ForkJoinPool pool) {
+            pool.invoke(new NeighborTask(0, movieCount));
+
+            int[] offsets = new int[movieCount + 1];
+            for (int movie = 0; movie < movieCount; movie++) {
+                offsets[movie + 1] = offsets[movie] + neighborCounts[movie];
+            }
+            int[] neighbors = new int[offsets[movieCount]];
+            float[] scores = new float[offsets[movieCount]];
+            for (int movie = 0; movie < movieCount; movie++) {
+                System.arraycopy(strideNeighbors, movie * maxNeighbors, neighbors, offsets[movie], neighborCounts[movie]);
+                System.arraycopy(strideScores, movie * maxNeighbors, scores, offsets[movie], neighborCounts[movie]);
+            }
+            return new SimilarityMatrix(movieIds, offsets, neighbors, scores, reviewCount, userCount);
+        }
+
+        // Dot products of this movie's centred rating vector with every movie sharing a rater, accumulated
+        // user by user, then turned into similarities and the best kept
+        private void computeNeighbors(int movie, Accumulator accumulator) {
+            if (norms[movie] == 0) {
+                return;
+            }
+            for (int at = movieStart[movie]; at < movieStart[movie + 1]; at++) {
+                int user = movieUsers[at];
+                float value = movieValues[at];
+                for (int other = userStart[user]; other < userStart[user + 1]; other++) {
+                    accumulator.add(userMovies[other], value * userValues[other]);
+                }
+            }
+            double shrinkage = properties.getShrinkage();
+            int minCoRaters = properties.getMinCoRaters();
+            for (int i = 0; i < accumulator.touchedCount; i++) {
+                int other = accumulator.touched[i];
+                int coRaters = accumulator.coRaters[other];
+                if (other != movie && coRaters >= minCoRaters && norms[other] > 0) {
+                    double cosine = accumulator.dots[other] / ((double) norms[movie] * norms[other]);
+                    double similarity = cosine * coRaters / (coRaters + shrinkage);
+                    if (similarity > 0) {
+                        accumulator.offer(other, (float) similarity);
+                    }
+                }
+                accumulator.dots[other] = 0;
+                accumulator.coRaters[other] = 0;
+            }
+            accumulator.touchedCount = 0;
+
+            neighborCounts[movie] = accumulator.topCount;
+            System.arraycopy(accumulator.topMovies, 0, strideNeighbors, movie * maxNeighbors, accumulator.topCount);
+            System.arraycopy(accumulator.topScores, 0, strideScores, movie * maxNeighbors, accumulator.topCount);
+            accumulator.topCount = 0;
+        }
+
+        private final class NeighborTask extends RecursiveAction {
+
+            private final int from;
+            private final int to;
+
+            NeighborTask(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= LEAF_MOVIES) {
+                    Accumulator accumulator = accumulators.get();
+                    for (int movie = from; movie < to; movie++) {
+                        computeNeighbors(movie, accumulator);
+                    }
+                    return;
+                }
+                int middle = (from + to) >>> 1;
+                invokeAll(new NeighborTask(from, middle), new NeighborTask(middle, to));
+            }
+        }
+    }
+
+    // Per-worker scratch space, reused across movies: dense dot products and co-rater counts with the list of
+    // movies touched, so resetting costs only what was used, and the current best neighbors sorted best first
+    private static final class Accumulator {
+
+        final float[] dots;
+        final int[] coRaters;
+        final int[] touched;
+        int touchedCount;
+        final int[] topMovies;
+        final float[] topScores;
+        int topCount;
+
+        Accumulator(int movieCount, int maxNeighbors) {
+            dots = new float[movieCount];
+            coRaters = new int[movieCount];
+            touched = new int[movieCount];
+            topMovies = new int[maxNeighbors];
+            topScores = new float[maxNeighbors];
+        }
+
+        void add(int movie, float product) {
+            if (coRaters[movie]++ == 0) {
+                touched[touchedCount++] = movie;
+            }
+            dots[movie] += product;
+        }
+
+        // Ties go to the lower movie index, which is the lower movie id
+        void offer(int movie, float score) {
+            int capacity = topMovies.length;
+            if (topCount == capacity && !beats(movie, score, topMovies[capacity - 1], topScores[capacity - 1])) {
+                return;
+            }
+            int at = Math.min(topCount, capacity - 1);
+            while (at > 0 && beats(movie, score, topMovies[at - 1], topScores[at - 1])) {
+                topMovies[at] = topMovies[at - 1];
+                topScores[at] = topScores[at - 1];
+                at--;
+            }
+            topMovies[at] = movie;
+            topScores[at] = score;
+            if (topCount < capacity) {
+                topCount++;
+            }
+        }
+
+        private static boolean beats(int movie, float score, int otherMovie, float otherScore) {
+            return score > otherScore || (score == otherScore && movie < otherMovie);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.flickcritic.similar;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "flickcritic.similar")
+public class SimilarityProperties {
+
+    // Most similar movies kept per movie
+    private int neighbors = 20;
+    // Pairs rated by fewer users than this are not considered similar at all
+    private int minCoRaters = 3;
+    // Damps pairs with few co-raters: similarity * coRaters / (coRaters + shrinkage)
+    private double shrinkage = 10.0;
+    // Users with more reviews than this are left out; their cost grows with the square of their review count
+    private int maxUserReviews = 1000;
+    // Fork/join parallelism of a rebuild
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    public int getNeighbors() {
+        return neighbors;
+    }
+
+    public void setNeighbors(int neighbors) {
+        this.neighbors = neighbors;
+    }
+
+    public int getMinCoRaters() {
+        return minCoRaters;
+    }
+
+    public void setMinCoRaters(int minCoRaters) {
+        this.minCoRaters = minCoRaters;
+    }
+
+    public double getShrinkage() {
+        return shrinkage;
+    }
+
+    public void setShrinkage(double shrinkage) {
+        this.shrinkage = shrinkage;
+    }
+
+    public int getMaxUserReviews() {
+        return maxUserReviews;
+    }
+
+    public void setMaxUserReviews(int maxUserReviews) {
+        this.maxUserReviews = maxUserReviews;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+}
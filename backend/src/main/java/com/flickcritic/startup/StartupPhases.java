@@ -0,0 +1,118 @@
+package com.flickcritic.startup;
+
+import com.flickcritic.dto.StartupPhase;
+import com.flickcritic.dto.StartupReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Startup breakdown from the steps a StartupRecorder buffered, when the JVM runs with
+// -Dflickcritic.startup.steps=<capacity> (see FlickCriticApplication)
+@Component
+public class StartupPhases {
+
+    private static final String REFRESH_STEP = "spring.context.refresh";
+    private static final String READY_STEP = "spring.boot.application.ready";
+    private static final String INSTANTIATE_STEP = "spring.beans.instantiate";
+    private static final int SLOWEST_BEANS = 15;
+
+    private final ApplicationStartup applicationStartup;
+
+    @Autowired
+    public StartupPhases(ApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+    }
+
+    // Null unless startup steps are being recorded
+    public StartupReport report() {
+        if (!(applicationStartup instanceof StartupRecorder recorder)) {
+            return null;
+        }
+        StartupTimeline timeline = recorder.getTimeline();
+        List<TimelineEvent> events = new ArrayList<>(timeline.getEvents());
+        events.sort(Comparator.comparing(TimelineEvent::getStartTime));
+
+        Map<Long, Duration> childTime = new HashMap<>();
+        for (TimelineEvent event : events) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                childTime.merge(parentId, event.getDuration(), Duration::plus);
+            }
+        }
+
+        // Startup ends when the ready listeners are done
+        Instant end = events.stream()
+                .filter(event -> READY_STEP.equals(event.getStartupStep().getName()))
+                .map(TimelineEvent::getEndTime)
+                .findFirst()
+                .orElse(Instant.now());
+        // Before SpringApplication.run: JVM boot and loading the launcher and main class
+        Instant jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+        Duration total = Duration.between(jvmStart, end);
+
+        // Top-level steps summed by name; "other" is startup time outside any step
+        Map<String, Duration> topLevel = new LinkedHashMap<>();
+        topLevel.put("jvm", Duration.between(jvmStart, timeline.getStartTime()));
+        TimelineEvent refresh = null;
+        for (TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (step.getParentId() == null && event.getStartTime().isBefore(end)) {
+                topLevel.merge(step.getName(), event.getDuration(), Duration::plus);
+                if (REFRESH_STEP.equals(step.getName())) {
+                    refresh = event;
+                }
+            }
+        }
+        topLevel.put("other", total.minus(topLevel.values().stream().reduce(Duration.ZERO, Duration::plus)));
+        List<StartupPhase> phases = new ArrayList<>();
+        topLevel.forEach((name, duration) -> phases.add(new StartupPhase(name, duration.toMillis())));
+
+        // Direct children of the refresh, summed by step name; the rest is refresh work that records no step
+        // of its own, such as starting the web server
+        Map<String, Duration> refreshSteps = new LinkedHashMap<>();
+        if (refresh != null) {
+            long refreshId = refresh.getStartupStep().getId();
+            for (TimelineEvent event : events) {
+                if (Long.valueOf(refreshId).equals(event.getStartupStep().getParentId())) {
+                    refreshSteps.merge(event.getStartupStep().getName(), event.getDuration(), Duration::plus);
+                }
+            }
+            refreshSteps.put("other", refresh.getDuration().minus(childTime.getOrDefault(refreshId, Duration.ZERO)));
+        }
+        List<StartupPhase> refreshPhases = new ArrayList<>();
+        refreshSteps.forEach((name, duration) -> refreshPhases.add(new StartupPhase(name, duration.toMillis())));
+
+        List<StartupPhase> slowestBeans = events.stream()
+                .filter(event -> INSTANTIATE_STEP.equals(event.getStartupStep().getName())
+                        && event.getStartTime().isBefore(end))
+                .map(event -> new StartupPhase(beanName(event.getStartupStep()), event.getDuration()
+                        .minus(childTime.getOrDefault(event.getStartupStep().getId(), Duration.ZERO)).toMillis()))
+                .sorted(Comparator.comparingLong(StartupPhase::millis).reversed())
+                .limit(SLOWEST_BEANS)
+                .toList();
+
+        return new StartupReport(total.toMillis(), phases, refreshPhases, slowestBeans);
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+}
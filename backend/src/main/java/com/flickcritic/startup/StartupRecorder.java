@@ -0,0 +1,28 @@
+package com.flickcritic.startup;
+
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+// Buffers the startup steps taken on the thread that creates it, the one running SpringApplication.run. The buffer
+// tracks a single current step, so a step on another thread (a bean created lazily by an early request or by
+// background seeding) would be filed under whatever the main thread was doing; those are not recorded.
+public class StartupRecorder implements ApplicationStartup {
+
+    private final BufferingApplicationStartup buffer;
+    private final Thread startupThread = Thread.currentThread();
+
+    public StartupRecorder(int capacity) {
+        this.buffer = new BufferingApplicationStartup(capacity);
+    }
+
+    @Override
+    public StartupStep start(String name) {
+        return Thread.currentThread() == startupThread ? buffer.start(name) : ApplicationStartup.DEFAULT.start(name);
+    }
+
+    public StartupTimeline getTimeline() {
+        return buffer.getBufferedTimeline();
+    }
+}
@@ -0,0 +1,362 @@
+package com.flickcritic.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickcritic.dto.ReviewView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-process publish/subscribe of review changes to the SSE streams of the movie they belong to. An open stream
+// holds no thread: it is an async request parked in Tomcat plus a small subscriber object here. Publishing encodes
+// an event once and hands it to every subscriber of the movie without blocking; a sender thread is taken only by a
+// subscriber with events waiting, and writes them in order.
+//
+// Writes are non-blocking servlet I/O, so a client that stops reading never holds a sender thread: once its socket
+// stops taking data the subscriber waits for Tomcat to report it writable again, and only its own stream falls
+// behind. Each subscriber buffers at most bufferSize events. A slow client loses the oldest ones, and the missed
+// events are coalesced into one "overflow" event carrying their count, sent ahead of the rest, after which the
+// client should reload the review list. Idle streams get a heartbeat comment, which also finds connections that went
+// away; a stream still not writable a heartbeat later is closed.
+@Component
+public class ReviewStreamHub implements DisposableBean {
+
+    public static final String REVIEW_EVENT = "review";
+    public static final String REVIEW_DELETED_EVENT = "review-deleted";
+    public static final String OVERFLOW_EVENT = "overflow";
+
+    private static final Outgoing SUBSCRIBED = new Outgoing(comment("subscribed"), false);
+    private static final Outgoing HEARTBEAT = new Outgoing(comment("heartbeat"), false);
+
+    private final ReviewStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor senders = new ThreadPoolTaskExecutor();
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribersByMovie = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final Counter sent;
+    private final Counter dropped;
+    private final Counter rejected;
+    private final Counter stalled;
+
+    @Autowired
+    public ReviewStreamHub(ReviewStreamProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        senders.setCorePoolSize(properties.getSenderThreads());
+        senders.setMaxPoolSize(properties.getSenderThreads());
+        // A subscriber has at most one send task queued or running, so this never fills
+        senders.setQueueCapacity(properties.getMaxSubscribers());
+        senders.setThreadNamePrefix("review-stream-");
+        senders.initialize();
+        new ExecutorServiceMetrics(senders.getThreadPoolExecutor(), "review-stream", List.of()).bindTo(meterRegistry);
+
+        Gauge.builder("flickcritic.review-stream.subscribers", subscriberCount, AtomicInteger::get)
+                .register(meterRegistry);
+        this.sent = meterRegistry.counter("flickcritic.review-stream.events", "result", "sent");
+        this.dropped = meterRegistry.counter("flickcritic.review-stream.events", "result", "dropped");
+        this.rejected = meterRegistry.counter("flickcritic.review-stream.rejected");
+        this.stalled = meterRegistry.counter("flickcritic.review-stream.stalled");
+    }
+
+    // Turns the request into a stream of the movie's review events and takes over its response; false when
+    // maxSubscribers are already open, in which case the response is left untouched
+    public boolean subscribe(Long movieId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        // Tells nginx-style proxies to pass events through as they are written
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext async = request.startAsync(request, response);
+        async.setTimeout(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(movieId, async, response.getOutputStream());
+        async.addListener(subscriber);
+        // Tomcat calls onWritePossible once the request thread returns, which flushes the headers and the subscribed
+        // comment, so the client sees the stream open before the first review
+        subscriber.out.setWriteListener(subscriber);
+        // Inside compute, so the set cannot be dropped as empty between looking it up and adding to it
+        subscribersByMovie.compute(movieId, (id, subscribers) -> {
+            Set<Subscriber> joined = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            joined.add(subscriber);
+            return joined;
+        });
+        return true;
+    }
+
+    // Called after the write has committed
+    public void publish(String eventName, ReviewView review) {
+        Set<Subscriber> subscribers = subscribersByMovie.get(review.movieId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        Outgoing event = new Outgoing(event(eventName, encode(review)), true);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${flickcritic.review-stream.heartbeat-interval:30000}",
+            initialDelayString = "${flickcritic.review-stream.heartbeat-interval:30000}")
+    public void heartbeat() {
+        for (Set<Subscriber> subscribers : subscribersByMovie.values()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offerHeartbeat();
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void destroy() {
+        senders.shutdown();
+    }
+
+    // Written as raw bytes, so each subscriber does not map the review again
+    private byte[] encode(ReviewView review) {
+        try {
+            return objectMapper.writeValueAsBytes(review);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] event(String name, byte[] data) {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(data.length + name.length() + 16);
+        frame.writeBytes(("event:" + name + "\ndata:").getBytes(StandardCharsets.UTF_8));
+        frame.writeBytes(data);
+        frame.writeBytes("\n\n".getBytes(StandardCharsets.UTF_8));
+        return frame.toByteArray();
+    }
+
+    private static byte[] comment(String text) {
+        return (":" + text + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private enum State {
+        // Nothing to write
+        IDLE,
+        // A thread is writing; it picks up whatever is offered meanwhile
+        SENDING,
+        // The socket took no more; Tomcat calls onWritePossible when it does
+        BLOCKED
+    }
+
+    private final class Subscriber implements WriteListener, AsyncListener {
+
+        private final Long movieId;
+        private final AsyncContext async;
+        private final ServletOutputStream out;
+
+        // Guarded by this
+        private final ArrayDeque<Outgoing> pending = new ArrayDeque<>(List.of(SUBSCRIBED));
+        private int missed;
+        // Sending from the start: the first onWritePossible writes the subscribed comment
+        private State state = State.SENDING;
+        private boolean stalledSinceHeartbeat;
+        private boolean closed;
+
+        Subscriber(Long movieId, AsyncContext async, ServletOutputStream out) {
+            this.movieId = movieId;
+            this.async = async;
+            this.out = out;
+        }
+
+        void offer(Outgoing event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() == properties.getBufferSize() && pending.poll().review()) {
+                    missed++;
+                    dropped.increment();
+                }
+                pending.add(event);
+                if (state != State.IDLE) {
+                    return;
+                }
+                state = State.SENDING;
+            }
+            schedule();
+        }
+
+        void offerHeartbeat() {
+            boolean stopped;
+            synchronized (this) {
+                if (closed || state == State.SENDING) {
+                    return;
+                }
+                stopped = state == State.BLOCKED;
+                if (stopped && !stalledSinceHeartbeat) {
+                    stalledSinceHeartbeat = true;
+                    return;
+                }
+                if (!stopped) {
+                    pending.add(HEARTBEAT);
+                    state = State.SENDING;
+                }
+            }
+            if (stopped) {
+                // Still not writable a heartbeat later: the client stopped reading
+                stalled.increment();
+                close();
+            } else {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            try {
+                senders.execute(this::send);
+            } catch (TaskRejectedException e) {
+                // Only while shutting down
+                close();
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                stalledSinceHeartbeat = false;
+                if (state == State.BLOCKED) {
+                    state = State.SENDING;
+                } else if (state != State.SENDING) {
+                    // Nothing waiting
+                    return;
+                }
+            }
+            send();
+        }
+
+        // Writes until nothing is waiting or the socket takes no more; only one send runs per subscriber at a time,
+        // and none runs while blocked
+        private void send() {
+            try {
+                while (true) {
+                    byte[] next;
+                    boolean review;
+                    synchronized (this) {
+                        if (closed) {
+                            return;
+                        }
+                        if (!out.isReady()) {
+                            state = State.BLOCKED;
+                            return;
+                        }
+                        if (missed > 0) {
+                            next = event(OVERFLOW_EVENT, Integer.toString(missed).getBytes(StandardCharsets.UTF_8));
+                            review = false;
+                            missed = 0;
+                        } else {
+                            Outgoing event = pending.poll();
+                            if (event == null) {
+                                out.flush();
+                                // A flush the socket could not take in full completes in onWritePossible
+                                state = out.isReady() ? State.IDLE : State.BLOCKED;
+                                return;
+                            }
+                            next = event.frame();
+                            review = event.review();
+                        }
+                        out.write(next);
+                    }
+                    if (review) {
+                        sent.increment();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away, or the stream already completed
+                close();
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            subscribersByMovie.computeIfPresent(movieId, (id, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            subscriberCount.decrementAndGet();
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+    }
+
+    // An encoded event, shared by every subscriber it is published to; only review events count as sent or dropped
+    private record Outgoing(byte[] frame, boolean review) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.flickcritic.stream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "flickcritic.review-stream")
+public class ReviewStreamProperties {
+
+    // Open streams across all movies; beyond this new streams are refused with 503. Each holds a connection, so
+    // server.tomcat.max-connections must leave room for them, and about 100 KB of heap, nearly all of it Tomcat's
+    // per-connection buffers
+    private int maxSubscribers = 10_000;
+
+    // Events waiting for one subscriber; when full the oldest is dropped and the subscriber told it missed some
+    private int bufferSize = 16;
+
+    // Threads writing events to subscribers; a stream only occupies one while it has events to write
+    private int senderThreads = 4;
+
+    // A stream is closed after this long and the client reconnects
+    private Duration timeout = Duration.ofMinutes(30);
+
+    public int getMaxSubscribers() {
+        return maxSubscribers;
+    }
+
+    public void setMaxSubscribers(int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
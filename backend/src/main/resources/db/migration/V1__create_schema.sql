@@ -0,0 +1,60 @@
+-- Baseline schema, matching the JPA mappings (spring.jpa.hibernate.ddl-auto=validate checks it at startup).
+
+create sequence movies_seq start with 1 increment by 50;
+create sequence reviews_seq start with 1 increment by 50;
+create sequence users_seq start with 1 increment by 50;
+
+create table movies (
+    id bigint not null,
+    title varchar(255),
+    image_url varchar(255),
+    description varchar(2000),
+    average_rating float(53),
+    rating_sum bigint not null,
+    review_count integer not null,
+    rating_count_1 integer default 0 not null,
+    rating_count_2 integer default 0 not null,
+    rating_count_3 integer default 0 not null,
+    rating_count_4 integer default 0 not null,
+    rating_count_5 integer default 0 not null,
+    version bigint default 0 not null,
+    last_modified timestamp(6) with time zone default current_timestamp,
+    primary key (id)
+);
+
+create table users (
+    id bigint not null,
+    name varchar(255),
+    email varchar(255),
+    password varchar(255),
+    role varchar(255),
+    primary key (id),
+    -- Login and registration look users up by email
+    constraint uk_users_email unique (email)
+);
+
+create table reviews (
+    id bigint not null,
+    movie_id bigint not null,
+    user_id bigint not null,
+    username varchar(255),
+    rating integer,
+    comment varchar(1000),
+    date date,
+    primary key (id),
+    -- One review per user and movie; also serves lookups by movie
+    constraint uk_reviews_movie_user unique (movie_id, user_id)
+);
+
+-- Keyset pages run newest first on (date, id). Leading with the movie or user column (and ordering by it) lets
+-- a page read its rows straight off the index instead of sorting all of that movie's or user's reviews.
+create index idx_reviews_movie_date on reviews (movie_id desc, date desc, id desc);
+create index idx_reviews_user_date on reviews (user_id desc, date desc, id desc);
+create index idx_reviews_date on reviews (date desc, id desc);
+
+-- H2 backs a foreign key only with an index on exactly its columns, and would otherwise add an unnamed one
+create index idx_reviews_movie on reviews (movie_id);
+create index idx_reviews_user on reviews (user_id);
+
+alter table reviews add constraint fk_reviews_movie foreign key (movie_id) references movies;
+alter table reviews add constraint fk_reviews_user foreign key (user_id) references users;
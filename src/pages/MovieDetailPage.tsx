@@ -42,16 +42,14 @@ const MovieDetailPage: React.FC = () => {
     setError(null);
     
     try {
-      const movieData = await movieApi.getById(movieId);
-      if (!movieData) {
+      const detail = await movieApi.getDetail(movieId);
+      if (!detail) {
         navigate('/not-found');
         return;
       }
       
-      setMovie(movieData);
-      
-      const reviewsData = await reviewApi.getByMovieId(movieId);
-      setReviews(reviewsData);
+      setMovie(detail.movie);
+      setReviews(detail.reviews);
     } catch (err) {
       console.error("Error fetching data:", err);
       setError("Failed to load movie data. Please try again later.");
@@ -99,14 +97,11 @@ const MovieDetailPage: React.FC = () => {
       const createdReview = await reviewApi.create(reviewData);
       
       if (createdReview) {
-        // Refresh reviews
-        const updatedReviews = await reviewApi.getByMovieId(movie.id);
-        setReviews(updatedReviews);
-        
-        // Refresh movie to get updated rating
-        const updatedMovie = await movieApi.getById(movie.id);
-        if (updatedMovie) {
-          setMovie(updatedMovie);
+        // Refresh reviews and the movie's updated rating
+        const updated = await movieApi.getDetail(movie.id);
+        if (updated) {
+          setMovie(updated.movie);
+          setReviews(updated.reviews);
         }
         
         // Reset form
@@ -1,4 +1,4 @@
-import { Movie, Review, User } from '@/types';
+import { Movie, MovieDetail, Review, User } from '@/types';
 
 const API_BASE_URL = 'http://localhost:8090/api';
 
@@ -27,6 +27,30 @@ export const movieApi = {
     }
   },
 
+  // Movie, rating summary and first page of reviews in one round trip
+  getDetail: async (id: string): Promise<MovieDetail | null> => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/movies/${id}/detail`);
+      if (!response.ok) throw new Error('Failed to fetch movie detail');
+      return await response.json();
+    } catch (error) {
+      console.error(`Error fetching detail of movie ${id}:`, error);
+      return null;
+    }
+  },
+
+  getByIds: async (ids: string[]): Promise<Movie[]> => {
+    if (ids.length === 0) return [];
+    try {
+      const response = await fetch(`${API_BASE_URL}/movies?ids=${ids.map(encodeURIComponent).join(',')}`);
+      if (!response.ok) throw new Error('Failed to fetch movies');
+      return await response.json();
+    } catch (error) {
+      console.error('Error fetching movies by id:', error);
+      return [];
+    }
+  },
+
   search: async (query: string): Promise<Movie[]> => {
     try {
       const response = await fetch(`${API_BASE_URL}/movies?search=${encodeURIComponent(query)}`);
@@ -168,13 +192,31 @@ export const userApi = {
         body: JSON.stringify({ email, password }),
       });
       if (!response.ok) throw new Error('Login failed');
-      return await response.json();
+      const session = await response.json();
+      localStorage.setItem('sessionToken', session.token);
+      return session.user;
     } catch (error) {
       console.error('Error during login:', error);
       return null;
     }
   },
 
+  logout: async (): Promise<void> => {
+    const token = localStorage.getItem('sessionToken');
+    localStorage.removeItem('sessionToken');
+    if (!token) return;
+    try {
+      await fetch(`${API_BASE_URL}/users/logout`, {
+        method: 'POST',
+        headers: {
+          'Authorization': `Bearer ${token}`,
+        },
+      });
+    } catch (error) {
+      console.error('Error during logout:', error);
+    }
+  },
+
   register: async (user: Omit<User, 'id'>): Promise<User | null> => {
     try {
       const response = await fetch(`${API_BASE_URL}/users`, {
@@ -19,6 +19,25 @@ export interface Review {
   date: string;
 }
 
+// Movie detail page data, loaded in one request
+export interface RatingSummary {
+  movieId: string;
+  oneStar: number;
+  twoStars: number;
+  threeStars: number;
+  fourStars: number;
+  fiveStars: number;
+  reviewCount: number;
+  averageRating: number;
+}
+
+export interface MovieDetail {
+  movie: Movie;
+  ratings: RatingSummary;
+  reviews: Review[];
+  nextReviewsCursor: string | null;
+}
+
 // User types
 export interface User {
   id: string;